@@ -5,14 +5,29 @@ import io.mckenz.modemanager.commands.ModeCommand;
 import io.mckenz.modemanager.data.CreativeBlockManager;
 import io.mckenz.modemanager.data.CreativeItemFrameManager;
 import io.mckenz.modemanager.data.ModeChangeRecord;
+import io.mckenz.modemanager.data.ModeTable;
 import io.mckenz.modemanager.data.PlayerDataManager;
 import io.mckenz.modemanager.data.PlayerModeData;
-import io.mckenz.modemanager.listeners.BlockListener;
-import io.mckenz.modemanager.listeners.EntityListener;
-import io.mckenz.modemanager.listeners.ItemRestrictionListener;
+import io.mckenz.modemanager.data.SnapshotLog;
+import io.mckenz.modemanager.listeners.ListenerManager;
+import io.mckenz.modemanager.jobs.JobScheduler;
 import io.mckenz.modemanager.listeners.PlayerListener;
+import io.mckenz.modemanager.listeners.WorldSaveListener;
+import io.mckenz.modemanager.services.CreativeItemMarker;
+import io.mckenz.modemanager.services.GrantService;
+import io.mckenz.modemanager.services.LoadoutService;
 import io.mckenz.modemanager.services.ModeService;
+import io.mckenz.modemanager.services.PermissionCache;
+import io.mckenz.modemanager.services.RateLimiter;
+import io.mckenz.modemanager.services.WorldGroupService;
+import io.mckenz.modemanager.storage.AutosaveScheduler;
+import io.mckenz.modemanager.storage.IoExecutor;
+import io.mckenz.modemanager.storage.IoOperation;
+import io.mckenz.modemanager.storage.ShutdownFlush;
+import io.mckenz.modemanager.storage.YamlStore;
+import io.mckenz.modemanager.util.AsyncExecutor;
 import io.mckenz.modemanager.util.MessageUtil;
+import io.mckenz.modemanager.util.SchedulerAdapter;
 import io.mckenz.modemanager.util.UpdateChecker;
 
 import org.bukkit.GameMode;
@@ -24,8 +39,14 @@ import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Main class for the ModeManager plugin
@@ -36,12 +57,27 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
     private boolean debug;
     private UpdateChecker updateChecker;
     private PlayerDataManager playerDataManager;
+    private SnapshotLog snapshotLog;
+    private ModeTable modeTable;
     private CreativeBlockManager creativeBlockManager;
     private CreativeItemFrameManager creativeItemFrameManager;
     private ModeService modeService;
+    private PermissionCache permissionCache;
+    private GrantService grantService;
+    private RateLimiter rateLimiter;
+    private WorldGroupService worldGroupService;
+    private LoadoutService loadoutService;
+    private CreativeItemMarker creativeItemMarker;
     private MessageUtil messageUtil;
-    private ItemRestrictionListener itemRestrictionListener;
-    private EntityListener entityListener;
+    private AsyncExecutor asyncExecutor;
+    private SchedulerAdapter scheduler;
+    private IoExecutor ioExecutor;
+    private YamlStore yamlStore;
+    private final AtomicBoolean blocksSaveQueued = new AtomicBoolean();
+    private final AtomicBoolean itemFramesSaveQueued = new AtomicBoolean();
+    private JobScheduler jobScheduler;
+    private AutosaveScheduler autosaveScheduler;
+    private ListenerManager listenerManager;
     
     @Override
     public void onEnable() {
@@ -49,22 +85,59 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
         saveDefaultConfig();
         loadConfig();
         
+        // Pick the Folia region schedulers or the Bukkit scheduler
+        scheduler = new SchedulerAdapter(this);
+        ioExecutor = new IoExecutor(this);
+        yamlStore = new YamlStore(getLogger(), config.getInt("performance.storage-backups", 3));
+        
         // Initialize managers and services
         playerDataManager = new PlayerDataManager(this);
-        creativeBlockManager = new CreativeBlockManager(getDataFolder(), getLogger());
-        creativeItemFrameManager = new CreativeItemFrameManager(getDataFolder(), getLogger());
+        snapshotLog = new SnapshotLog(this);
+        modeTable = new ModeTable();
+        creativeBlockManager = new CreativeBlockManager(getDataFolder(), getLogger(), yamlStore);
+        creativeItemFrameManager = new CreativeItemFrameManager(getDataFolder(), getLogger(), yamlStore);
         modeService = new ModeService(this);
+        rateLimiter = new RateLimiter(this);
+        worldGroupService = new WorldGroupService(this);
+        loadoutService = new LoadoutService(this);
+        creativeItemMarker = new CreativeItemMarker(this);
+        permissionCache = new PermissionCache(this);
         messageUtil = new MessageUtil(this);
+        asyncExecutor = new AsyncExecutor(this);
         
-        // Initialize listeners
-        itemRestrictionListener = new ItemRestrictionListener(this);
-        entityListener = new EntityListener(this);
+        // Report tracking files that had to be recovered; player files are reported by /mode admin io
+        if (yamlStore.getRecovered() > 0 || yamlStore.getLost() > 0) {
+            getLogger().warning("Data file integrity: " + yamlStore.getRecovered() + " recovered from backups, "
+                    + yamlStore.getLost() + " unrecoverable");
+        }
         
-        // Register events
+        // Register core events
         getServer().getPluginManager().registerEvents(new PlayerListener(this), this);
-        getServer().getPluginManager().registerEvents(new BlockListener(this), this);
-        getServer().getPluginManager().registerEvents(entityListener, this);
-        getServer().getPluginManager().registerEvents(itemRestrictionListener, this);
+        getServer().getPluginManager().registerEvents(new WorldSaveListener(this), this);
+        
+        // Limit mode switches and saves server-wide
+        rateLimiter.start();
+        
+        // Run background jobs within a per-tick budget
+        jobScheduler = new JobScheduler(this);
+        jobScheduler.start();
+        
+        // Save changed data periodically
+        autosaveScheduler = new AutosaveScheduler(this);
+        autosaveScheduler.start();
+        
+        // Load temporary creative grants and start expiring them
+        grantService = new GrantService(this);
+        grantService.start();
+        
+        // Track players that are already online after a reload
+        for (Player player : getServer().getOnlinePlayers()) {
+            modeTable.put(player.getUniqueId(), playerDataManager.getPlayerData(player).getCurrentMode());
+        }
+        
+        // Register protection listeners for enabled features only
+        listenerManager = new ListenerManager(this);
+        listenerManager.refresh();
         
         // Register commands
         ModeCommand commandExecutor = new ModeCommand(this, modeService);
@@ -102,14 +175,43 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
         enabled = config.getBoolean("enabled", true);
         debug = config.getBoolean("debug", false);
         
-        // Reload item restrictions if the listener is initialized
-        if (itemRestrictionListener != null) {
-            itemRestrictionListener.reloadRestrictedItems();
+        // Reload the permission cache TTL and drop cached decisions
+        if (permissionCache != null) {
+            permissionCache.reload();
+        }
+        
+        // Reload message settings
+        if (messageUtil != null) {
+            messageUtil.reload();
+        }
+        
+        // Reload the server-wide switch and save limits
+        if (rateLimiter != null) {
+            rateLimiter.reload();
+        }
+        
+        // Reload the world groups sharing inventories
+        if (worldGroupService != null) {
+            worldGroupService.reload();
+        }
+        
+        // Reload the creative item marker actions
+        if (creativeItemMarker != null) {
+            creativeItemMarker.reload();
+        }
+        
+        // Reload the job budget and autosave interval
+        if (jobScheduler != null) {
+            jobScheduler.reload();
         }
         
-        // Reload entity restrictions if the listener is initialized
-        if (entityListener != null) {
-            entityListener.reloadRestrictedEntities();
+        if (autosaveScheduler != null) {
+            autosaveScheduler.reload();
+        }
+        
+        // Register or unregister protection listeners as their toggles change
+        if (listenerManager != null) {
+            listenerManager.refresh();
         }
         
         logDebug("Configuration loaded");
@@ -128,19 +230,38 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
 
     @Override
     public void onDisable() {
-        // Save all player data
-        if (playerDataManager != null) {
-            playerDataManager.saveAllPlayerData();
+        // Deliver queued broadcasts
+        if (messageUtil != null) {
+            messageUtil.shutdown();
+        }
+        
+        // Stop autosaving and background jobs, the shutdown flush below saves everything
+        if (autosaveScheduler != null) {
+            autosaveScheduler.stop();
+        }
+        
+        if (jobScheduler != null) {
+            jobScheduler.stop();
+        }
+        
+        if (grantService != null) {
+            grantService.stop();
+        }
+        
+        // Lift the rate limits and hand saves still waiting for a token to the I/O executor
+        if (rateLimiter != null) {
+            rateLimiter.stop();
         }
         
-        // Save creative blocks
-        if (creativeBlockManager != null) {
-            creativeBlockManager.saveBlocks();
+        // Let pending async API calls finish before the final save
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
         }
         
-        // Save creative item frames
-        if (creativeItemFrameManager != null) {
-            creativeItemFrameManager.saveItemFrames();
+        // Save player data, creative blocks and creative item frames in parallel
+        if (ioExecutor != null) {
+            new ShutdownFlush(this).flush(getConfig().getLong("performance.shutdown-flush-timeout-ms", 10000L));
+            ioExecutor.shutdown(1000L);
         }
         
         getLogger().info("ModeManager has been disabled!");
@@ -165,15 +286,53 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
     
     @Override
     public GameMode getPlayerMode(UUID playerUuid) {
-        PlayerModeData data = playerDataManager.getPlayerData(playerUuid);
+        // Online players are answered from the mode table without touching player data
+        GameMode mode = modeTable.get(playerUuid);
+        if (mode != null) {
+            return mode;
+        }
+        
+        // Offline players are read from their file without keeping or creating data for them
+        PlayerModeData data = playerDataManager.getLoadedPlayerData(playerUuid);
+        if (data == null) {
+            data = playerDataManager.readPlayerData(playerUuid);
+        }
         return data != null ? data.getCurrentMode() : null;
     }
     
+    @Override
+    public Map<UUID, GameMode> getPlayerModes(Collection<UUID> playerUuids) {
+        return modeTable.getAll(playerUuids);
+    }
+    
+    @Override
+    public Map<UUID, GameMode> getOnlinePlayerModes() {
+        return modeTable.snapshot();
+    }
+    
+    @Override
+    public CompletableFuture<GameMode> getPlayerModeAsync(UUID playerUuid) {
+        GameMode mode = modeTable.get(playerUuid);
+        if (mode != null) {
+            return CompletableFuture.completedFuture(mode);
+        }
+        
+        return asyncExecutor.supplyIo(IoOperation.PLAYER_DATA_LOAD, () -> {
+            PlayerModeData data = playerDataManager.readPlayerData(playerUuid);
+            return data != null ? data.getCurrentMode() : null;
+        });
+    }
+    
     @Override
     public boolean changePlayerMode(Player player, GameMode newMode, String reason) {
         return modeService.changePlayerMode(player, newMode, reason);
     }
     
+    @Override
+    public CompletableFuture<Boolean> changePlayerModeAsync(Player player, GameMode newMode, String reason) {
+        return modeService.changePlayerModeAsync(player, newMode, reason);
+    }
+    
     @Override
     public boolean isPlayerInCooldown(Player player) {
         PlayerModeData data = playerDataManager.getPlayerData(player);
@@ -188,6 +347,20 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
         return data != null ? data.getRemainingCooldown(cooldown) : 0;
     }
     
+    @Override
+    public CompletableFuture<Boolean> isPlayerInCooldownAsync(UUID playerUuid) {
+        return getPlayerRemainingCooldownAsync(playerUuid).thenApply(remaining -> remaining > 0);
+    }
+    
+    @Override
+    public CompletableFuture<Long> getPlayerRemainingCooldownAsync(UUID playerUuid) {
+        int cooldown = config.getInt("mode-switching.cooldown-seconds", 30);
+        return asyncExecutor.supplyIo(IoOperation.PLAYER_DATA_LOAD, () -> {
+            PlayerModeData data = playerDataManager.readPlayerData(playerUuid);
+            return data != null ? data.getRemainingCooldown(cooldown) : 0L;
+        });
+    }
+    
     @Override
     public boolean isCreativeBlock(Location location) {
         return creativeBlockManager.isCreativeBlock(location);
@@ -214,6 +387,71 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
         return data != null ? data.getModeHistory() : List.of();
     }
     
+    @Override
+    public CompletableFuture<List<ModeChangeRecord>> getModeHistoryAsync(UUID playerUuid) {
+        return asyncExecutor.supplyIo(IoOperation.PLAYER_DATA_LOAD, () -> playerDataManager.readModeHistory(playerUuid));
+    }
+    
+    @Override
+    public boolean grantTemporaryCreative(Player player, Duration duration, String grantedBy) {
+        // Complete when called from the player's thread, otherwise the grant is applied there shortly
+        return grantService.grant(player, duration, grantedBy).getNow(true);
+    }
+    
+    @Override
+    public boolean revokeTemporaryCreative(UUID playerUuid) {
+        return grantService.revoke(playerUuid);
+    }
+    
+    @Override
+    public Instant getTemporaryCreativeExpiry(UUID playerUuid) {
+        return grantService.getExpiry(playerUuid);
+    }
+    
+    @Override
+    public void invalidatePermissionCache(UUID playerUuid) {
+        permissionCache.invalidate(playerUuid);
+    }
+    
+    @Override
+    public void invalidatePermissionCache() {
+        permissionCache.invalidateAll();
+    }
+    
+    /**
+     * Saves creative block and item frame tracking on the I/O executor.
+     * Only stores with unsaved changes are written, and calls made while a save is still
+     * queued are folded into that save.
+     */
+    public void saveTrackingDataAsync() {
+        if (creativeBlockManager.isDirty()) {
+            queueTrackingSave(blocksSaveQueued, IoOperation.CREATIVE_BLOCKS_SAVE, () -> creativeBlockManager.snapshotBlocks().getAsBoolean());
+        }
+        
+        if (creativeItemFrameManager.isDirty()) {
+            queueTrackingSave(itemFramesSaveQueued, IoOperation.CREATIVE_ITEM_FRAMES_SAVE, () -> creativeItemFrameManager.snapshotItemFrames().getAsBoolean());
+        }
+    }
+    
+    /**
+     * Queue a tracking store save unless one is already queued
+     * 
+     * @param queued The flag marking a queued save of the store
+     * @param operation The I/O operation type
+     * @param save The save to run
+     */
+    private void queueTrackingSave(AtomicBoolean queued, IoOperation operation, Runnable save) {
+        if (!queued.compareAndSet(false, true)) {
+            return;
+        }
+        
+        ioExecutor.run(operation, () -> {
+            // Changes made from here on are picked up by the next save
+            queued.set(false);
+            save.run();
+        });
+    }
+    
     /**
      * Checks if the plugin functionality is enabled
      * 
@@ -272,6 +510,15 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
         return playerDataManager;
     }
     
+    /**
+     * Gets the table of online players' modes
+     * 
+     * @return The mode table
+     */
+    public ModeTable getModeTable() {
+        return modeTable;
+    }
+    
     /**
      * Gets the creative block manager
      * 
@@ -299,6 +546,114 @@ public class ModeManager extends JavaPlugin implements ModeManagerAPI {
         return modeService;
     }
     
+    /**
+     * Gets the permission cache
+     * 
+     * @return The permission cache
+     */
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+    
+    /**
+     * Get the server-wide switch and save rate limiter
+     * 
+     * @return The rate limiter
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * Get the service keeping separate inventories per world group
+     * 
+     * @return The world group service
+     */
+    public WorldGroupService getWorldGroupService() {
+        return worldGroupService;
+    }
+    
+    /**
+     * Get the log of inventory snapshots taken on mode switches
+     * 
+     * @return The snapshot log
+     */
+    public SnapshotLog getSnapshotLog() {
+        return snapshotLog;
+    }
+    
+    /**
+     * Get the creative loadout service
+     * 
+     * @return The loadout service
+     */
+    public LoadoutService getLoadoutService() {
+        return loadoutService;
+    }
+    
+    /**
+     * Get the marker for items obtained in creative mode
+     * 
+     * @return The creative item marker
+     */
+    public CreativeItemMarker getCreativeItemMarker() {
+        return creativeItemMarker;
+    }
+    
+    /**
+     * Get the temporary creative grant service
+     * 
+     * @return The grant service
+     */
+    public GrantService getGrantService() {
+        return grantService;
+    }
+    
+    /**
+     * Gets the async executor
+     * 
+     * @return The async executor
+     */
+    public AsyncExecutor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+    
+    /**
+     * Gets the scheduler adapter
+     * 
+     * @return The scheduler adapter
+     */
+    public SchedulerAdapter getScheduler() {
+        return scheduler;
+    }
+    
+    /**
+     * Gets the I/O executor
+     * 
+     * @return The I/O executor
+     */
+    public IoExecutor getIoExecutor() {
+        return ioExecutor;
+    }
+    
+    /**
+     * Gets the background job scheduler
+     * 
+     * @return The job scheduler
+     */
+    public JobScheduler getJobScheduler() {
+        return jobScheduler;
+    }
+    
+    /**
+     * Gets the store used to read and write data files
+     * 
+     * @return The YAML store
+     */
+    public YamlStore getYamlStore() {
+        return yamlStore;
+    }
+    
     /**
      * Gets the message utility
      * 
@@ -8,8 +8,13 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API interface for ModeManager functionality
@@ -43,12 +48,40 @@ public interface ModeManagerAPI {
     
     /**
      * Gets the current mode of a player
+     * Offline players are read from their saved data, which may block on disk I/O;
+     * use {@link #getPlayerModeAsync(UUID)} for them off the main thread.
      * 
      * @param playerUuid The UUID of the player to check
      * @return The player's current mode, or null if the player has no data
      */
     GameMode getPlayerMode(UUID playerUuid);
     
+    /**
+     * Gets the current modes of several online players in one call.
+     * Reads an in-memory snapshot and never loads player data, so it is safe to call from any thread.
+     * 
+     * @param playerUuids The UUIDs of the players to check
+     * @return An immutable map of player UUIDs to modes; players that are not online are left out
+     */
+    Map<UUID, GameMode> getPlayerModes(Collection<UUID> playerUuids);
+    
+    /**
+     * Gets the current modes of all online players.
+     * Reads an in-memory snapshot and never loads player data, so it is safe to call from any thread.
+     * 
+     * @return An immutable map of online player UUIDs to modes
+     */
+    Map<UUID, GameMode> getOnlinePlayerModes();
+    
+    /**
+     * Gets the current mode of a player without blocking the calling thread.
+     * Offline players' modes are read from their saved data on the async executor.
+     * 
+     * @param playerUuid The UUID of the player to check
+     * @return A future completed with the player's mode, or null if the player has no data
+     */
+    CompletableFuture<GameMode> getPlayerModeAsync(UUID playerUuid);
+    
     /**
      * Changes a player's mode
      * 
@@ -75,6 +108,34 @@ public interface ModeManagerAPI {
      */
     long getPlayerRemainingCooldown(Player player);
     
+    /**
+     * Changes a player's mode without blocking on disk I/O.
+     * The inventory swap runs on the main thread, or the player's region thread on Folia,
+     * and player data is saved on the async executor.
+     * 
+     * @param player The player to change mode for
+     * @param newMode The new mode to set
+     * @param reason The reason for the change
+     * @return A future completed with true if the mode was changed successfully, false otherwise
+     */
+    CompletableFuture<Boolean> changePlayerModeAsync(Player player, GameMode newMode, String reason);
+    
+    /**
+     * Checks if a player, online or offline, is in cooldown without blocking the calling thread
+     * 
+     * @param playerUuid The UUID of the player to check
+     * @return A future completed with true if the player is in cooldown, false otherwise
+     */
+    CompletableFuture<Boolean> isPlayerInCooldownAsync(UUID playerUuid);
+    
+    /**
+     * Gets the remaining cooldown time of a player, online or offline, without blocking the calling thread
+     * 
+     * @param playerUuid The UUID of the player to check
+     * @return A future completed with the remaining cooldown in seconds, or 0 if not in cooldown
+     */
+    CompletableFuture<Long> getPlayerRemainingCooldownAsync(UUID playerUuid);
+    
     /**
      * Checks if a block was placed in creative mode
      * 
@@ -114,4 +175,57 @@ public interface ModeManagerAPI {
      * @return A list of mode change records, or an empty list if the player has no history
      */
     List<ModeChangeRecord> getPlayerModeHistory(Player player);
+    
+    /**
+     * Gets a player's mode history without blocking the calling thread.
+     * Offline players' history is read from their saved data on the async executor.
+     * 
+     * @param playerUuid The UUID of the player to get history for
+     * @return A future completed with the mode change records, or an empty list if the player has no history
+     */
+    CompletableFuture<List<ModeChangeRecord>> getModeHistoryAsync(UUID playerUuid);
+    
+    /**
+     * Grants a player creative mode for a limited time
+     * The player is put into creative mode now and returned to their previous mode when the grant expires,
+     * even across restarts. Granting again replaces the expiry of an existing grant.
+     * 
+     * @param player The player to grant creative mode
+     * @param duration How long the grant lasts
+     * @param grantedBy The name shown to the player as the source of the grant
+     * @return True if the player was put into creative mode, false otherwise; when called from a thread that does not
+     *         own the player (any thread but the main thread outside Folia), the grant is scheduled on the player's thread
+     *         and true is returned
+     */
+    boolean grantTemporaryCreative(Player player, Duration duration, String grantedBy);
+    
+    /**
+     * Revokes a player's temporary creative grant
+     * Online players are returned to their previous mode now, offline players when they next join
+     * 
+     * @param playerUuid The UUID of the player
+     * @return True if the player had a grant, false otherwise
+     */
+    boolean revokeTemporaryCreative(UUID playerUuid);
+    
+    /**
+     * Gets when a player's temporary creative grant expires
+     * 
+     * @param playerUuid The UUID of the player
+     * @return The expiry time, or null if the player has no active grant
+     */
+    Instant getTemporaryCreativeExpiry(UUID playerUuid);
+    
+    /**
+     * Invalidates a player's cached ModeManager permissions
+     * Call this after changing a player's permissions so the change takes effect immediately
+     * 
+     * @param playerUuid The UUID of the player
+     */
+    void invalidatePermissionCache(UUID playerUuid);
+    
+    /**
+     * Invalidates the cached ModeManager permissions of all players
+     */
+    void invalidatePermissionCache();
 }
\ No newline at end of file
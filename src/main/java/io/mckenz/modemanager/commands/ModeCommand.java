@@ -1,9 +1,27 @@
 package io.mckenz.modemanager.commands;
 
 import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.data.InventorySnapshot;
 import io.mckenz.modemanager.data.ModeChangeRecord;
 import io.mckenz.modemanager.data.PlayerModeData;
+import io.mckenz.modemanager.data.SnapshotLog;
+import io.mckenz.modemanager.jobs.Job;
+import io.mckenz.modemanager.jobs.JobScheduler;
+import io.mckenz.modemanager.services.BulkForceJob;
+import io.mckenz.modemanager.services.CreativeItemMarker;
+import io.mckenz.modemanager.services.LoadoutService;
+import io.mckenz.modemanager.services.ModePermission;
 import io.mckenz.modemanager.services.ModeService;
+import io.mckenz.modemanager.services.RateLimiter;
+import io.mckenz.modemanager.storage.IoExecutor;
+import io.mckenz.modemanager.storage.IoOperation;
+import io.mckenz.modemanager.storage.YamlStore;
+import io.mckenz.modemanager.util.BroadcastQueue;
+import io.mckenz.modemanager.util.DurationFormat;
+import io.mckenz.modemanager.util.MessageArgs;
+import io.mckenz.modemanager.util.MessageUtil;
+import io.mckenz.modemanager.util.Placeholder;
+import io.mckenz.modemanager.util.PlayerSelector;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.command.Command;
@@ -12,11 +30,11 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -26,9 +44,10 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
     
     private final ModeManager plugin;
     private final ModeService modeService;
-    private final List<String> mainCommands = Arrays.asList("survival", "creative", "status", "admin");
-    private final List<String> adminCommands = Arrays.asList("list", "check", "force");
-    private final List<String> gameModes = Arrays.asList("survival", "creative");
+    private final List<String> mainCommands = Arrays.asList("survival", "creative", "status", "loadout", "admin");
+    private final List<String> loadoutCommands = Arrays.asList("save", "load", "delete", "list");
+    private final List<String> adminCommands = Arrays.asList("list", "check", "force", "grant", "rollback", "io", "jobs");
+    private final List<String> gameModes = Arrays.asList("survival", "creative", "adventure", "spectator");
     
     /**
      * Constructor for ModeCommand
@@ -60,6 +79,9 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
             case "status":
                 return handleStatusCommand(sender);
                 
+            case "loadout":
+                return handleLoadoutCommand(sender, args);
+                
             case "admin":
                 return handleAdminCommand(sender, args);
                 
@@ -83,7 +105,7 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         
         Player player = (Player) sender;
         
-        if (!player.hasPermission("modemanager.use")) {
+        if (!plugin.getPermissionCache().has(player, ModePermission.USE)) {
             plugin.getMessageUtil().sendMessage(player, "no-permission");
             return true;
         }
@@ -105,7 +127,9 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         
         Player player = (Player) sender;
         
-        if (!player.hasPermission("modemanager.use") || !player.hasPermission("modemanager.creative")) {
+        // The cached creative permission includes an active temporary grant
+        if (!plugin.getPermissionCache().has(player, ModePermission.USE)
+                || !plugin.getPermissionCache().has(player, ModePermission.CREATIVE)) {
             plugin.getMessageUtil().sendMessage(player, "no-permission");
             return true;
         }
@@ -127,7 +151,7 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         
         Player player = (Player) sender;
         
-        if (!player.hasPermission("modemanager.use")) {
+        if (!plugin.getPermissionCache().has(player, ModePermission.USE)) {
             plugin.getMessageUtil().sendMessage(sender, "no-permission");
             return true;
         }
@@ -136,17 +160,13 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         
         plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-header");
         
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("mode", data.getCurrentMode().name());
-        plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-current-mode", placeholders);
+        plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-current-mode", Placeholder.MODE, data.getCurrentMode().name());
         
         // Show cooldown if applicable
         int cooldown = plugin.getConfig().getInt("mode-switching.cooldown-seconds", 30);
         if (data.isInCooldown(cooldown)) {
             long remainingCooldown = data.getRemainingCooldown(cooldown);
-            placeholders = new HashMap<>();
-            placeholders.put("time", String.valueOf(remainingCooldown));
-            plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-cooldown-active", placeholders);
+            plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-cooldown-active", Placeholder.TIME, String.valueOf(remainingCooldown));
         } else {
             plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-cooldown-ready");
         }
@@ -157,17 +177,97 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         int count = Math.min(5, history.size());
         for (int i = history.size() - 1; i >= history.size() - count; i--) {
             ModeChangeRecord record = history.get(i);
-            Map<String, String> recordPlaceholders = new HashMap<>();
-            recordPlaceholders.put("timestamp", record.getFormattedTimestamp());
-            recordPlaceholders.put("mode", record.getGameMode().name());
-            recordPlaceholders.put("reason", record.getReason());
+            MessageArgs recordArgs = MessageUtil.args(Placeholder.TIMESTAMP, record.getFormattedTimestamp(),
+                                                   Placeholder.MODE, record.getGameMode().name(),
+                                                   Placeholder.REASON, record.getReason());
             
-            plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-history-entry", recordPlaceholders);
+            plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "status-history-entry", recordArgs);
         }
         
         return true;
     }
     
+    /**
+     * Handle the loadout command
+     * 
+     * @param sender The command sender
+     * @param args The command arguments
+     * @return True if the command was handled successfully
+     */
+    private boolean handleLoadoutCommand(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            plugin.getMessageUtil().sendMessage(sender, "player-only");
+            return true;
+        }
+        
+        Player player = (Player) sender;
+        
+        if (!player.hasPermission("modemanager.loadout")) {
+            plugin.getMessageUtil().sendMessage(player, "no-permission");
+            return true;
+        }
+        
+        String action = args.length >= 2 ? args[1].toLowerCase() : "";
+        LoadoutService loadouts = plugin.getLoadoutService();
+        PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
+        
+        if (action.equals("list")) {
+            List<String> names = data.getLoadoutNames();
+            if (names.isEmpty()) {
+                plugin.getMessageUtil().sendMessage(player, "loadout-list-empty");
+                return true;
+            }
+            
+            plugin.getMessageUtil().sendMessage(player, "loadout-list", MessageUtil.args(
+                    Placeholder.COUNT, String.valueOf(names.size()),
+                    Placeholder.LIMIT, String.valueOf(loadouts.getLimit(player)),
+                    Placeholder.NAME, String.join(", ", names)));
+            return true;
+        }
+        
+        if (args.length < 3 || !loadoutCommands.contains(action)) {
+            plugin.getMessageUtil().sendMessage(player, "loadout-usage");
+            return true;
+        }
+        
+        String name = args[2].toLowerCase();
+        if (!loadouts.isValidName(name)) {
+            plugin.getMessageUtil().sendMessage(player, "loadout-invalid-name", Placeholder.NAME, name);
+            return true;
+        }
+        
+        if (action.equals("delete")) {
+            plugin.getMessageUtil().sendMessage(player, loadouts.delete(player, name) ? "loadout-deleted" : "loadout-not-found",
+                    Placeholder.NAME, name);
+            return true;
+        }
+        
+        // Loadouts hold creative items, so they are only saved and loaded in creative mode
+        if (data.getCurrentMode() != GameMode.CREATIVE) {
+            plugin.getMessageUtil().sendMessage(player, "loadout-creative-only");
+            return true;
+        }
+        
+        if (action.equals("save")) {
+            if (loadouts.save(player, name)) {
+                plugin.getMessageUtil().sendMessage(player, "loadout-saved", Placeholder.NAME, name);
+            } else {
+                plugin.getMessageUtil().sendMessage(player, "loadout-limit-reached", Placeholder.LIMIT, String.valueOf(loadouts.getLimit(player)));
+            }
+            return true;
+        }
+        
+        String blob = data.getLoadout(name);
+        if (blob == null) {
+            plugin.getMessageUtil().sendMessage(player, "loadout-not-found", Placeholder.NAME, name);
+        } else if (loadouts.load(player, blob)) {
+            plugin.getMessageUtil().sendMessage(player, "loadout-loaded", Placeholder.NAME, name);
+        } else {
+            plugin.getMessageUtil().sendMessage(player, "loadout-load-failed", Placeholder.NAME, name);
+        }
+        return true;
+    }
+    
     /**
      * Handle the admin command
      * 
@@ -207,6 +307,33 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
                 String reason = args.length > 4 ? String.join(" ", Arrays.copyOfRange(args, 4, args.length)) : "";
                 return handleAdminForceCommand(sender, args[2], args[3], reason);
                 
+            case "grant":
+                if (args.length < 5 || !args[3].equalsIgnoreCase("creative")) {
+                    plugin.getMessageUtil().sendMessage(sender, "admin-grant-usage");
+                    return true;
+                }
+                return handleAdminGrantCommand(sender, args[2], args[4]);
+                
+            case "rollback":
+                if (args.length < 3) {
+                    plugin.getMessageUtil().sendMessage(sender, "admin-rollback-usage");
+                    return true;
+                }
+                return handleAdminRollbackCommand(sender, args[2], args.length > 3 ? args[3] : null);
+                
+            case "io":
+                return handleAdminIoCommand(sender);
+                
+            case "jobs":
+                if (args.length >= 3 && args[2].equalsIgnoreCase("cancel")) {
+                    if (args.length < 4) {
+                        plugin.getMessageUtil().sendMessage(sender, "admin-jobs-usage");
+                        return true;
+                    }
+                    return handleAdminJobsCancelCommand(sender, args[3]);
+                }
+                return handleAdminJobsCommand(sender);
+                
             default:
                 plugin.getMessageUtil().sendMessage(sender, "admin-unknown-command");
                 return true;
@@ -228,14 +355,153 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         plugin.getMessageUtil().sendMessage(sender, "admin-list-header");
         
         for (Player player : Bukkit.getOnlinePlayers()) {
-            PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
-            GameMode mode = data.getCurrentMode();
+            GameMode mode = plugin.getModeTable().get(player.getUniqueId());
+            if (mode == null) {
+                mode = plugin.getPlayerDataManager().getPlayerData(player).getCurrentMode();
+            }
             
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("player", player.getName());
-            placeholders.put("mode", mode.name());
+            plugin.getMessageUtil().sendMessage(sender, "admin-list-entry", Placeholder.PLAYER, player.getName(), Placeholder.MODE, mode.name());
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Handle the admin io command
+     * 
+     * @param sender The command sender
+     * @return True if the command was handled successfully
+     */
+    private boolean handleAdminIoCommand(CommandSender sender) {
+        if (!sender.hasPermission("modemanager.admin.io")) {
+            plugin.getMessageUtil().sendMessage(sender, "no-permission");
+            return true;
+        }
+        
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-header");
+        
+        for (IoOperation operation : IoOperation.values()) {
+            IoExecutor.OperationStats stats = plugin.getIoExecutor().getStats(operation);
+            MessageArgs entryArgs = MessageArgs.of(Placeholder.OPERATION, operation.getDisplayName())
+                    .with(Placeholder.QUEUED, String.valueOf(stats.getQueued()))
+                    .with(Placeholder.IN_FLIGHT, String.valueOf(stats.getInFlight()))
+                    .with(Placeholder.COUNT, String.valueOf(stats.getCompleted()))
+                    .with(Placeholder.FAILED, String.valueOf(stats.getFailed()))
+                    .with(Placeholder.AVERAGE, String.format("%.1f", stats.getAverageMillis()))
+                    .with(Placeholder.MAX, String.format("%.1f", stats.getMaxMillis()));
+            
+            plugin.getMessageUtil().sendMessage(sender, "admin-io-entry", entryArgs);
+        }
+        
+        YamlStore store = plugin.getYamlStore();
+        MessageArgs integrityArgs = MessageArgs.of(Placeholder.VERIFIED, String.valueOf(store.getVerified()))
+                .with(Placeholder.UNVERIFIED, String.valueOf(store.getUnverified()))
+                .with(Placeholder.RECOVERED, String.valueOf(store.getRecovered()))
+                .with(Placeholder.LOST, String.valueOf(store.getLost()));
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-integrity", integrityArgs);
+        
+        RateLimiter limiter = plugin.getRateLimiter();
+        MessageArgs limitArgs = MessageArgs.of(Placeholder.THROTTLED, String.valueOf(limiter.getSwitchesThrottled()))
+                .with(Placeholder.REJECTED, String.valueOf(limiter.getSwitchesRejected()))
+                .with(Placeholder.DELAYED, String.valueOf(limiter.getSavesDelayed()))
+                .with(Placeholder.QUEUED, String.valueOf(limiter.getQueued()));
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-rate-limit", limitArgs);
+        
+        CreativeItemMarker marker = plugin.getCreativeItemMarker();
+        MessageArgs markerArgs = MessageArgs.of(Placeholder.TAGGED, String.valueOf(marker.getTagged()))
+                .with(Placeholder.STRIPPED, String.valueOf(marker.getStripped()))
+                .with(Placeholder.DENIED, String.valueOf(marker.getDenied()));
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-creative-items", markerArgs);
+        
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-grants",
+                                            Placeholder.COUNT, String.valueOf(plugin.getGrantService().getGrantCount()));
+        
+        BroadcastQueue broadcasts = plugin.getMessageUtil().getBroadcastQueue();
+        MessageArgs broadcastArgs = MessageArgs.of(Placeholder.QUEUED, String.valueOf(broadcasts.getBacklog()))
+                .with(Placeholder.RECIPIENTS, String.valueOf(broadcasts.getRecipientBacklog()))
+                .with(Placeholder.MERGED, String.valueOf(broadcasts.getMergedTotal()));
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-broadcasts", broadcastArgs);
+        
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-denials",
+                                            Placeholder.SUPPRESSED, String.valueOf(plugin.getMessageUtil().getDenialThrottle().getSuppressedTotal()));
+        
+        long restores = modeService.getInventoryRestoreCount();
+        long slotsWritten = modeService.getInventorySlotsWritten();
+        MessageArgs inventoryArgs = MessageArgs.of(Placeholder.COUNT, String.valueOf(restores))
+                .with(Placeholder.WRITTEN, String.valueOf(slotsWritten))
+                .with(Placeholder.AVERAGE, String.format("%.1f", restores > 0 ? (double) slotsWritten / restores : 0.0))
+                .with(Placeholder.SKIPPED, String.valueOf(modeService.getInventorySectionsSkipped()));
+        plugin.getMessageUtil().sendMessage(sender, "admin-io-inventory", inventoryArgs);
+        
+        return true;
+    }
+    
+    /**
+     * Handle the admin jobs command
+     * 
+     * @param sender The command sender
+     * @return True if the command was handled successfully
+     */
+    private boolean handleAdminJobsCommand(CommandSender sender) {
+        if (!sender.hasPermission("modemanager.admin.jobs")) {
+            plugin.getMessageUtil().sendMessage(sender, "no-permission");
+            return true;
+        }
+        
+        JobScheduler jobScheduler = plugin.getJobScheduler();
+        plugin.getMessageUtil().sendMessage(sender, "admin-jobs-header",
+                Placeholder.BUDGET, String.format("%.2f", jobScheduler.getCurrentBudgetMillis()),
+                Placeholder.MSPT, String.format("%.1f", jobScheduler.getMspt()));
+        
+        List<Job> jobs = jobScheduler.getJobs();
+        if (jobs.isEmpty()) {
+            plugin.getMessageUtil().sendMessage(sender, "admin-jobs-empty");
+            return true;
+        }
+        
+        for (Job job : jobs) {
+            long completed = job.getCompletedUnits();
+            long total = job.getTotalUnits();
+            String progress = total > 0
+                    ? completed + "/" + total + " (" + (completed * 100 / total) + "%)"
+                    : String.valueOf(completed);
             
-            plugin.getMessageUtil().sendMessage(sender, "admin-list-entry", placeholders);
+            MessageArgs entryArgs = MessageArgs.of(Placeholder.ID, String.valueOf(job.getId()))
+                    .with(Placeholder.JOB, job.getName())
+                    .with(Placeholder.PRIORITY, job.getPriority().name())
+                    .with(Placeholder.PROGRESS, progress);
+            
+            plugin.getMessageUtil().sendMessage(sender, "admin-jobs-entry", entryArgs);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Handle the admin jobs cancel command
+     * 
+     * @param sender The command sender
+     * @param jobId The ID of the job to cancel
+     * @return True if the command was handled successfully
+     */
+    private boolean handleAdminJobsCancelCommand(CommandSender sender, String jobId) {
+        if (!sender.hasPermission("modemanager.admin.jobs")) {
+            plugin.getMessageUtil().sendMessage(sender, "no-permission");
+            return true;
+        }
+        
+        int id;
+        try {
+            id = Integer.parseInt(jobId.startsWith("#") ? jobId.substring(1) : jobId);
+        } catch (NumberFormatException e) {
+            plugin.getMessageUtil().sendMessage(sender, "admin-jobs-not-found", Placeholder.ID, jobId);
+            return true;
+        }
+        
+        if (plugin.getJobScheduler().cancel(id)) {
+            plugin.getMessageUtil().sendMessage(sender, "admin-jobs-cancelled", Placeholder.ID, String.valueOf(id));
+        } else {
+            plugin.getMessageUtil().sendMessage(sender, "admin-jobs-not-found", Placeholder.ID, String.valueOf(id));
         }
         
         return true;
@@ -257,29 +523,20 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         Player target = Bukkit.getPlayer(playerName);
         
         if (target == null) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("player", playerName);
-            plugin.getMessageUtil().sendMessage(sender, "player-not-found", placeholders);
+            plugin.getMessageUtil().sendMessage(sender, "player-not-found", Placeholder.PLAYER, playerName);
             return true;
         }
         
         PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(target);
         
-        Map<String, String> headerPlaceholders = new HashMap<>();
-        headerPlaceholders.put("player", target.getName());
-        plugin.getMessageUtil().sendMessage(sender, "admin-check-header", headerPlaceholders);
-        
-        Map<String, String> modePlaceholders = new HashMap<>();
-        modePlaceholders.put("mode", data.getCurrentMode().name());
-        plugin.getMessageUtil().sendMessage(sender, "admin-check-current-mode", modePlaceholders);
+        plugin.getMessageUtil().sendMessage(sender, "admin-check-header", Placeholder.PLAYER, target.getName());
+        plugin.getMessageUtil().sendMessage(sender, "admin-check-current-mode", Placeholder.MODE, data.getCurrentMode().name());
         
         // Show cooldown if applicable
         int cooldown = plugin.getConfig().getInt("mode-switching.cooldown-seconds", 30);
         if (data.isInCooldown(cooldown)) {
             long remainingCooldown = data.getRemainingCooldown(cooldown);
-            Map<String, String> cooldownPlaceholders = new HashMap<>();
-            cooldownPlaceholders.put("time", String.valueOf(remainingCooldown));
-            plugin.getMessageUtil().sendMessage(sender, "admin-check-cooldown-active", cooldownPlaceholders);
+            plugin.getMessageUtil().sendMessage(sender, "admin-check-cooldown-active", Placeholder.TIME, String.valueOf(remainingCooldown));
         } else {
             plugin.getMessageUtil().sendMessage(sender, "admin-check-cooldown-ready");
         }
@@ -289,12 +546,11 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
         List<ModeChangeRecord> history = data.getModeHistory();
         for (int i = history.size() - 1; i >= 0; i--) {
             ModeChangeRecord record = history.get(i);
-            Map<String, String> recordPlaceholders = new HashMap<>();
-            recordPlaceholders.put("timestamp", record.getFormattedTimestamp());
-            recordPlaceholders.put("mode", record.getGameMode().name());
-            recordPlaceholders.put("reason", record.getReason());
+            MessageArgs recordArgs = MessageUtil.args(Placeholder.TIMESTAMP, record.getFormattedTimestamp(),
+                                                   Placeholder.MODE, record.getGameMode().name(),
+                                                   Placeholder.REASON, record.getReason());
             
-            plugin.getMessageUtil().sendMessage(sender, "admin-check-history-entry", recordPlaceholders);
+            plugin.getMessageUtil().sendMessage(sender, "admin-check-history-entry", recordArgs);
         }
         
         return true;
@@ -315,49 +571,130 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         
+        GameMode mode;
+        try {
+            mode = GameMode.valueOf(modeName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getMessageUtil().sendMessage(sender, "invalid-mode", Placeholder.MODE, modeName);
+            return true;
+        }
+        
+        String adminName = sender instanceof Player ? ((Player) sender).getName() : "Console";
+        
+        // Selectors force many players, spread over ticks by the job scheduler
+        if (PlayerSelector.isSelector(playerName)) {
+            return handleAdminBulkForceCommand(sender, playerName, mode, reason, adminName);
+        }
+        
         Player target = Bukkit.getPlayer(playerName);
         
         if (target == null) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("player", playerName);
-            plugin.getMessageUtil().sendMessage(sender, "player-not-found", placeholders);
+            plugin.getMessageUtil().sendMessage(sender, "player-not-found", Placeholder.PLAYER, playerName);
             return true;
         }
         
-        GameMode mode;
-        try {
-            mode = GameMode.valueOf(modeName.toUpperCase());
+        // The target's inventory and mode are changed on the target's own thread
+        plugin.getScheduler().runForEntity(target, () -> {
+            if (!target.isOnline()) {
+                plugin.getMessageUtil().sendMessage(sender, "player-not-found", Placeholder.PLAYER, target.getName());
+                return;
+            }
             
-            // Only allow SURVIVAL and CREATIVE modes
-            if (mode != GameMode.SURVIVAL && mode != GameMode.CREATIVE) {
-                plugin.getMessageUtil().sendMessage(sender, "invalid-mode");
-                return true;
+            boolean success = modeService.forcePlayerMode(target, mode, reason, adminName);
+            
+            if (success) {
+                plugin.getMessageUtil().sendMessage(sender, "admin-force-success", Placeholder.PLAYER, target.getName(), Placeholder.MODE, mode.name());
+            } else {
+                plugin.getMessageUtil().sendMessage(sender, "admin-force-failed", Placeholder.PLAYER, target.getName(), Placeholder.MODE, mode.name());
             }
-        } catch (IllegalArgumentException e) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("mode", modeName);
-            plugin.getMessageUtil().sendMessage(sender, "invalid-mode", placeholders);
+        }, null, 0L);
+        
+        return true;
+    }
+    
+    /**
+     * Start a job forcing every player matched by a selector into a mode
+     * 
+     * @param sender The command sender
+     * @param selectorText The player selector
+     * @param mode The mode to force
+     * @param reason The reason for forcing the mode
+     * @param adminName The name of the admin forcing the mode
+     * @return True if the command was handled successfully
+     */
+    private boolean handleAdminBulkForceCommand(CommandSender sender, String selectorText, GameMode mode, String reason, String adminName) {
+        PlayerSelector selector = PlayerSelector.parse(selectorText);
+        if (selector == null) {
+            plugin.getMessageUtil().sendMessage(sender, "admin-force-invalid-selector", Placeholder.PLAYER, selectorText);
             return true;
         }
         
-        String adminName = sender instanceof Player ? ((Player) sender).getName() : "Console";
-        boolean success = modeService.forcePlayerMode(target, mode, reason, adminName);
+        List<UUID> players = Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).collect(Collectors.toList());
+        BulkForceJob job = plugin.getJobScheduler().submit(
+                new BulkForceJob(plugin, sender, selector, mode, reason, adminName, players));
         
-        if (success) {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("player", target.getName());
-            placeholders.put("mode", mode.name());
-            plugin.getMessageUtil().sendMessage(sender, "admin-force-success", placeholders);
-        } else {
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("player", target.getName());
-            placeholders.put("mode", mode.name());
-            plugin.getMessageUtil().sendMessage(sender, "admin-force-failed", placeholders);
+        MessageArgs startArgs = MessageArgs.of(Placeholder.ID, String.valueOf(job.getId()))
+                .with(Placeholder.PLAYER, selector.toString())
+                .with(Placeholder.MODE, mode.name())
+                .with(Placeholder.COUNT, String.valueOf(players.size()));
+        plugin.getMessageUtil().sendMessage(sender, "admin-force-bulk-started", startArgs);
+        
+        return true;
+    }
+    
+    /**
+     * Handle the admin grant command
+     * 
+     * @param sender The command sender
+     * @param playerName The player name to grant creative mode
+     * @param durationText The duration of the grant
+     * @return True if the command was handled successfully
+     */
+    private boolean handleAdminGrantCommand(CommandSender sender, String playerName, String durationText) {
+        if (!sender.hasPermission("modemanager.admin.grant")) {
+            plugin.getMessageUtil().sendMessage(sender, "no-permission");
+            return true;
+        }
+        
+        Player target = Bukkit.getPlayer(playerName);
+        
+        if (target == null) {
+            plugin.getMessageUtil().sendMessage(sender, "player-not-found", Placeholder.PLAYER, playerName);
+            return true;
         }
         
+        Duration duration = DurationFormat.parse(durationText);
+        if (duration == null) {
+            plugin.getMessageUtil().sendMessage(sender, "admin-grant-invalid-duration", Placeholder.TIME, durationText);
+            return true;
+        }
+        
+        String adminName = sender instanceof Player ? ((Player) sender).getName() : "Console";
+        plugin.getGrantService().grant(target, duration, adminName).thenAccept(success -> {
+            if (success) {
+                plugin.getMessageUtil().sendMessage(sender, "admin-grant-success", Placeholder.PLAYER, target.getName(), Placeholder.TIME, DurationFormat.format(duration));
+            } else {
+                plugin.getMessageUtil().sendMessage(sender, "admin-grant-failed", Placeholder.PLAYER, target.getName());
+            }
+        });
+        
         return true;
     }
     
+    /**
+     * Check a mode permission of a command sender, through the permission cache for players
+     * 
+     * @param sender The command sender
+     * @param permission The permission to check
+     * @return True if the sender has the permission
+     */
+    private boolean hasModePermission(CommandSender sender, ModePermission permission) {
+        if (sender instanceof Player) {
+            return plugin.getPermissionCache().has((Player) sender, permission);
+        }
+        return sender.hasPermission(permission.getNode());
+    }
+    
     /**
      * Show the help message
      * 
@@ -366,16 +703,20 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
     private void showHelp(CommandSender sender) {
         plugin.getMessageUtil().sendMessage(sender, "help-header");
         
-        if (sender.hasPermission("modemanager.use")) {
+        if (hasModePermission(sender, ModePermission.USE)) {
             plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-survival");
             
-            if (sender.hasPermission("modemanager.creative")) {
+            if (hasModePermission(sender, ModePermission.CREATIVE)) {
                 plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-creative");
             }
             
             plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-status");
         }
         
+        if (sender.hasPermission("modemanager.loadout")) {
+            plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-loadout");
+        }
+        
         if (sender.hasPermission("modemanager.admin")) {
             plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-admin-list");
             plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-admin-check");
@@ -383,9 +724,134 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
             if (sender.hasPermission("modemanager.admin.force")) {
                 plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-admin-force");
             }
+            
+            if (sender.hasPermission("modemanager.admin.grant")) {
+                plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-admin-grant");
+            }
+            
+            if (sender.hasPermission("modemanager.admin.rollback")) {
+                plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-admin-rollback");
+            }
+            
+            if (sender.hasPermission("modemanager.admin.io")) {
+                plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-admin-io");
+            }
+            
+            if (sender.hasPermission("modemanager.admin.jobs")) {
+                plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "help-admin-jobs");
+            }
         }
     }
     
+    /**
+     * Handle the admin rollback command
+     * 
+     * @param sender The command sender
+     * @param playerName The name of the player
+     * @param versionText The snapshot number, 1 for the newest, or null to list the snapshots
+     * @return True if the command was handled successfully
+     */
+    private boolean handleAdminRollbackCommand(CommandSender sender, String playerName, String versionText) {
+        if (!sender.hasPermission("modemanager.admin.rollback")) {
+            plugin.getMessageUtil().sendMessage(sender, "no-permission");
+            return true;
+        }
+        
+        Player target = Bukkit.getPlayer(playerName);
+        
+        if (target == null) {
+            plugin.getMessageUtil().sendMessage(sender, "player-not-found", Placeholder.PLAYER, playerName);
+            return true;
+        }
+        
+        SnapshotLog snapshots = plugin.getSnapshotLog();
+        
+        if (versionText == null) {
+            // The log is read on the I/O executor; the list is sent from there
+            snapshots.listAsync(target.getUniqueId()).whenComplete((list, error) -> {
+                if (error != null) {
+                    plugin.getMessageUtil().sendMessage(sender, "admin-rollback-failed", Placeholder.PLAYER, target.getName());
+                    return;
+                }
+                
+                if (list.isEmpty()) {
+                    plugin.getMessageUtil().sendMessage(sender, "admin-rollback-empty", Placeholder.PLAYER, target.getName());
+                    return;
+                }
+                
+                plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "admin-rollback-header", Placeholder.PLAYER, target.getName());
+                for (int i = 0; i < list.size(); i++) {
+                    InventorySnapshot snapshot = list.get(i);
+                    MessageArgs entryArgs = MessageArgs.of(Placeholder.ID, String.valueOf(i + 1))
+                            .with(Placeholder.TIMESTAMP, snapshot.getRecord().getFormattedTimestamp())
+                            .with(Placeholder.MODE, snapshot.getRecord().getGameMode().name())
+                            .with(Placeholder.NAME, snapshot.getInventoryGroup())
+                            .with(Placeholder.REASON, snapshot.getRecord().getReason());
+                    plugin.getMessageUtil().sendMessageWithoutPrefix(sender, "admin-rollback-entry", entryArgs);
+                }
+            });
+            return true;
+        }
+        
+        int version;
+        try {
+            version = Integer.parseInt(versionText);
+        } catch (NumberFormatException e) {
+            version = 0;
+        }
+        
+        if (version < 1) {
+            plugin.getMessageUtil().sendMessage(sender, "admin-rollback-usage");
+            return true;
+        }
+        
+        int requested = version;
+        
+        String adminName = sender instanceof Player ? ((Player) sender).getName() : "Console";
+        
+        // The version is rebuilt on the I/O executor and applied on the player's thread
+        snapshots.rebuildAsync(target.getUniqueId(), requested).whenComplete((snapshot, error) -> {
+            if (error != null) {
+                plugin.getMessageUtil().sendMessage(sender, "admin-rollback-failed", Placeholder.PLAYER, target.getName());
+                return;
+            }
+            
+            if (snapshot == null) {
+                plugin.getMessageUtil().sendMessage(sender, "admin-rollback-not-found",
+                        Placeholder.ID, String.valueOf(requested), Placeholder.PLAYER, target.getName());
+                return;
+            }
+            
+            plugin.getScheduler().runForEntity(target, () -> {
+                PlayerModeData data = plugin.getPlayerDataManager().getLoadedPlayerData(target.getUniqueId());
+                if (!target.isOnline() || data == null) {
+                    plugin.getMessageUtil().sendMessage(sender, "player-not-found", Placeholder.PLAYER, target.getName());
+                    return;
+                }
+                
+                // The player's other groups' inventories are not loaded, so only their current group can be rolled back
+                if (!snapshot.getInventoryGroup().equals(data.getInventoryGroup())) {
+                    plugin.getMessageUtil().sendMessage(sender, "admin-rollback-other-group", MessageUtil.args(
+                            Placeholder.ID, String.valueOf(requested), Placeholder.NAME, snapshot.getInventoryGroup(),
+                            Placeholder.PLAYER, target.getName()));
+                    return;
+                }
+                
+                modeService.rollbackInventory(target, snapshot, adminName);
+                
+                String mode = snapshot.getRecord().getGameMode().name();
+                plugin.getMessageUtil().sendMessage(target, "inventory-rolled-back", Placeholder.MODE, mode, Placeholder.ADMIN, adminName);
+                
+                MessageArgs successArgs = MessageArgs.of(Placeholder.PLAYER, target.getName())
+                        .with(Placeholder.MODE, mode)
+                        .with(Placeholder.ID, String.valueOf(requested))
+                        .with(Placeholder.TIMESTAMP, snapshot.getRecord().getFormattedTimestamp());
+                plugin.getMessageUtil().sendMessage(sender, "admin-rollback-success", successArgs);
+            }, null, 0L);
+        });
+        return true;
+    }
+    
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         List<String> completions = new ArrayList<>();
@@ -401,18 +867,44 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
                         continue;
                     }
                     
-                    if (cmd.equals("creative") && !sender.hasPermission("modemanager.creative")) {
+                    if (cmd.equals("creative") && !hasModePermission(sender, ModePermission.CREATIVE)) {
+                        continue;
+                    }
+                    
+                    if (cmd.equals("loadout") && !sender.hasPermission("modemanager.loadout")) {
                         continue;
                     }
                     
                     if ((cmd.equals("survival") || cmd.equals("creative") || cmd.equals("status")) && 
-                        !sender.hasPermission("modemanager.use")) {
+                        !hasModePermission(sender, ModePermission.USE)) {
                         continue;
                     }
                     
                     completions.add(cmd);
                 }
             }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("loadout") && sender.hasPermission("modemanager.loadout")) {
+            // Second argument for loadout command - actions
+            String partialAction = args[1].toLowerCase();
+            
+            for (String action : loadoutCommands) {
+                if (action.startsWith(partialAction)) {
+                    completions.add(action);
+                }
+            }
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("loadout") && sender instanceof Player
+                   && (args[1].equalsIgnoreCase("load") || args[1].equalsIgnoreCase("save") || args[1].equalsIgnoreCase("delete"))) {
+            // Third argument for loadout command - the player's loadout names
+            PlayerModeData data = plugin.getPlayerDataManager().getLoadedPlayerData(((Player) sender).getUniqueId());
+            String partialName = args[2].toLowerCase();
+            
+            if (data != null) {
+                for (String name : data.getLoadoutNames()) {
+                    if (name.startsWith(partialName)) {
+                        completions.add(name);
+                    }
+                }
+            }
         } else if (args.length == 2 && args[0].equalsIgnoreCase("admin")) {
             // Second argument for admin command
             String partialCommand = args[1].toLowerCase();
@@ -432,12 +924,29 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
                         continue;
                     }
                     
+                    if (cmd.equals("grant") && !sender.hasPermission("modemanager.admin.grant")) {
+                        continue;
+                    }
+                    
+                    if (cmd.equals("rollback") && !sender.hasPermission("modemanager.admin.rollback")) {
+                        continue;
+                    }
+                    
+                    if (cmd.equals("io") && !sender.hasPermission("modemanager.admin.io")) {
+                        continue;
+                    }
+                    
+                    if (cmd.equals("jobs") && !sender.hasPermission("modemanager.admin.jobs")) {
+                        continue;
+                    }
+                    
                     completions.add(cmd);
                 }
             }
         } else if (args.length == 3 && args[0].equalsIgnoreCase("admin") && 
-                  (args[1].equalsIgnoreCase("check") || args[1].equalsIgnoreCase("force"))) {
-            // Third argument for admin check/force command - player names
+                  (args[1].equalsIgnoreCase("check") || args[1].equalsIgnoreCase("force") || args[1].equalsIgnoreCase("grant")
+                   || args[1].equalsIgnoreCase("rollback"))) {
+            // Third argument for admin check/force/grant/rollback command - player names
             String partialName = args[2].toLowerCase();
             
             for (Player player : Bukkit.getOnlinePlayers()) {
@@ -445,6 +954,15 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
                     completions.add(player.getName());
                 }
             }
+            
+            // Bulk selectors for admin force
+            if (args[1].equalsIgnoreCase("force")) {
+                for (String selector : Arrays.asList("@all", "@world:", "@perm:")) {
+                    if (selector.startsWith(partialName)) {
+                        completions.add(selector);
+                    }
+                }
+            }
         } else if (args.length == 4 && args[0].equalsIgnoreCase("admin") && args[1].equalsIgnoreCase("force")) {
             // Fourth argument for admin force command - game modes
             String partialMode = args[3].toLowerCase();
@@ -454,6 +972,11 @@ public class ModeCommand implements CommandExecutor, TabCompleter {
                     completions.add(mode);
                 }
             }
+        } else if (args.length == 4 && args[0].equalsIgnoreCase("admin") && args[1].equalsIgnoreCase("grant")) {
+            // Fourth argument for admin grant command - only creative can be granted
+            if ("creative".startsWith(args[3].toLowerCase())) {
+                completions.add("creative");
+            }
         }
         
         return completions;
@@ -1,5 +1,6 @@
 package io.mckenz.modemanager.data;
 
+import io.mckenz.modemanager.storage.YamlStore;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.YamlConfiguration;
 
@@ -9,6 +10,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,16 +22,20 @@ public class CreativeBlockManager {
     private final Map<String, UUID> creativeBlocks = new ConcurrentHashMap<>();
     private final File dataFile;
     private final Logger logger;
+    private final YamlStore store;
+    private final AtomicBoolean dirty = new AtomicBoolean();
     
     /**
      * Constructor for CreativeBlockManager
      * 
      * @param dataFolder The data folder
      * @param logger The logger
+     * @param store The store used to read and write the data file
      */
-    public CreativeBlockManager(File dataFolder, Logger logger) {
+    public CreativeBlockManager(File dataFolder, Logger logger, YamlStore store) {
         this.dataFile = new File(dataFolder, "creative-blocks.yml");
         this.logger = logger;
+        this.store = store;
         loadBlocks();
     }
     
@@ -41,6 +48,7 @@ public class CreativeBlockManager {
     public void addBlock(Location location, UUID playerUuid) {
         String locationKey = locationToString(location);
         creativeBlocks.put(locationKey, playerUuid);
+        dirty.set(true);
     }
     
     /**
@@ -50,7 +58,9 @@ public class CreativeBlockManager {
      */
     public void removeBlock(Location location) {
         String locationKey = locationToString(location);
-        creativeBlocks.remove(locationKey);
+        if (creativeBlocks.remove(locationKey) != null) {
+            dirty.set(true);
+        }
     }
     
     /**
@@ -76,9 +86,21 @@ public class CreativeBlockManager {
     }
     
     /**
-     * Save the creative blocks to disk
+     * Check if the creative blocks changed since they were last saved
+     * 
+     * @return True if there are unsaved changes
+     */
+    public boolean isDirty() {
+        return dirty.get();
+    }
+    
+    /**
+     * Snapshot the creative blocks for writing later
+     * 
+     * @return A task writing the snapshot and returning true if it reached the disk
      */
-    public void saveBlocks() {
+    public BooleanSupplier snapshotBlocks() {
+        dirty.set(false);
         YamlConfiguration config = new YamlConfiguration();
         
         // Convert the map to a format that can be saved
@@ -89,11 +111,26 @@ public class CreativeBlockManager {
         
         config.set("blocks", saveMap);
         
+        int count = saveMap.size();
+        return () -> writeBlocks(config, count);
+    }
+    
+    /**
+     * Write a snapshot of the creative blocks to disk
+     * 
+     * @param config The YAML snapshot
+     * @param count The number of entries in the snapshot
+     * @return True if the snapshot was written
+     */
+    private synchronized boolean writeBlocks(YamlConfiguration config, int count) {
         try {
-            config.save(dataFile);
-            logger.info("Saved " + creativeBlocks.size() + " creative blocks to disk");
+            store.save(config, dataFile);
+            logger.info("Saved " + count + " creative blocks to disk");
+            return true;
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to save creative blocks", e);
+            dirty.set(true);
+            return false;
         }
     }
     
@@ -102,16 +139,25 @@ public class CreativeBlockManager {
      */
     @SuppressWarnings("unchecked")
     private void loadBlocks() {
-        if (!dataFile.exists()) {
+        YamlConfiguration config = store.load(dataFile);
+        if (config == null) {
             logger.info("No creative blocks file found, starting with empty list");
             return;
         }
         
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+        if (config.getConfigurationSection("blocks") == null) {
+            logger.info("No blocks section found in data file, starting with empty list");
+            return;
+        }
+        
         Map<String, Object> loadedMap = config.getConfigurationSection("blocks").getValues(false);
         
         for (Map.Entry<String, Object> entry : loadedMap.entrySet()) {
-            creativeBlocks.put(entry.getKey(), UUID.fromString(entry.getValue().toString()));
+            try {
+                creativeBlocks.put(entry.getKey(), UUID.fromString(entry.getValue().toString()));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid UUID in creative blocks file: " + entry.getValue());
+            }
         }
         
         logger.info("Loaded " + creativeBlocks.size() + " creative blocks from disk");
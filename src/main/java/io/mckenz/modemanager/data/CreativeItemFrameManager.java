@@ -1,5 +1,6 @@
 package io.mckenz.modemanager.data;
 
+import io.mckenz.modemanager.storage.YamlStore;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Entity;
@@ -11,6 +12,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,16 +24,20 @@ public class CreativeItemFrameManager {
     private final Map<UUID, UUID> creativeItemFrames = new ConcurrentHashMap<>();
     private final File dataFile;
     private final Logger logger;
+    private final YamlStore store;
+    private final AtomicBoolean dirty = new AtomicBoolean();
     
     /**
      * Constructor for CreativeItemFrameManager
      * 
      * @param dataFolder The data folder
      * @param logger The logger
+     * @param store The store used to read and write the data file
      */
-    public CreativeItemFrameManager(File dataFolder, Logger logger) {
+    public CreativeItemFrameManager(File dataFolder, Logger logger, YamlStore store) {
         this.dataFile = new File(dataFolder, "creative-item-frames.yml");
         this.logger = logger;
+        this.store = store;
         loadItemFrames();
     }
     
@@ -42,6 +49,7 @@ public class CreativeItemFrameManager {
      */
     public void addItemFrame(ItemFrame itemFrame, UUID playerUuid) {
         creativeItemFrames.put(itemFrame.getUniqueId(), playerUuid);
+        dirty.set(true);
     }
     
     /**
@@ -50,7 +58,9 @@ public class CreativeItemFrameManager {
      * @param itemFrame The item frame entity
      */
     public void removeItemFrame(ItemFrame itemFrame) {
-        creativeItemFrames.remove(itemFrame.getUniqueId());
+        if (creativeItemFrames.remove(itemFrame.getUniqueId()) != null) {
+            dirty.set(true);
+        }
     }
     
     /**
@@ -74,9 +84,21 @@ public class CreativeItemFrameManager {
     }
     
     /**
-     * Save the creative item frames to disk
+     * Check if the creative item frames changed since they were last saved
+     * 
+     * @return True if there are unsaved changes
+     */
+    public boolean isDirty() {
+        return dirty.get();
+    }
+    
+    /**
+     * Snapshot the creative item frames for writing later
+     * 
+     * @return A task writing the snapshot and returning true if it reached the disk
      */
-    public void saveItemFrames() {
+    public BooleanSupplier snapshotItemFrames() {
+        dirty.set(false);
         YamlConfiguration config = new YamlConfiguration();
         
         // Convert the map to a format that can be saved
@@ -87,11 +109,26 @@ public class CreativeItemFrameManager {
         
         config.set("item-frames", saveMap);
         
+        int count = saveMap.size();
+        return () -> writeItemFrames(config, count);
+    }
+    
+    /**
+     * Write a snapshot of the creative item frames to disk
+     * 
+     * @param config The YAML snapshot
+     * @param count The number of entries in the snapshot
+     * @return True if the snapshot was written
+     */
+    private synchronized boolean writeItemFrames(YamlConfiguration config, int count) {
         try {
-            config.save(dataFile);
-            logger.info("Saved " + creativeItemFrames.size() + " creative item frames to disk");
+            store.save(config, dataFile);
+            logger.info("Saved " + count + " creative item frames to disk");
+            return true;
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Failed to save creative item frames", e);
+            dirty.set(true);
+            return false;
         }
     }
     
@@ -100,12 +137,12 @@ public class CreativeItemFrameManager {
      */
     @SuppressWarnings("unchecked")
     private void loadItemFrames() {
-        if (!dataFile.exists()) {
+        YamlConfiguration config = store.load(dataFile);
+        if (config == null) {
             logger.info("No creative item frames file found, starting with empty list");
             return;
         }
         
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
         if (config.getConfigurationSection("item-frames") == null) {
             logger.info("No item frames section found in data file, starting with empty list");
             return;
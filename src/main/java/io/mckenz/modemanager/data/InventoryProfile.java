@@ -0,0 +1,146 @@
+package io.mckenz.modemanager.data;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The inventory a player keeps for one game mode.
+ * Follows the same threading rules as the owning {@link PlayerModeData}.
+ */
+public class InventoryProfile {
+    /**
+     * Fingerprint value meaning the stored section's fingerprint is unknown
+     */
+    public static final long NO_FINGERPRINT = 0L;
+    
+    private volatile ItemStack[] inventory;
+    private volatile ItemStack[] armorContents;
+    private volatile ItemStack[] enderChestContents;
+    private volatile ItemStack offHandItem;
+    private final long[] fingerprints = new long[InventorySection.values().length];
+    
+    /**
+     * Get the inventory contents
+     * 
+     * @return The inventory contents, or null if none were saved
+     */
+    public ItemStack[] getInventory() {
+        return inventory;
+    }
+    
+    /**
+     * Set the inventory contents
+     * 
+     * @param inventory The inventory contents
+     */
+    public void setInventory(ItemStack[] inventory) {
+        this.inventory = inventory;
+        fingerprints[InventorySection.INVENTORY.ordinal()] = NO_FINGERPRINT;
+    }
+    
+    /**
+     * Get the armor contents
+     * 
+     * @return The armor contents, or null if none were saved
+     */
+    public ItemStack[] getArmorContents() {
+        return armorContents;
+    }
+    
+    /**
+     * Set the armor contents
+     * 
+     * @param armorContents The armor contents
+     */
+    public void setArmorContents(ItemStack[] armorContents) {
+        this.armorContents = armorContents;
+        fingerprints[InventorySection.ARMOR.ordinal()] = NO_FINGERPRINT;
+    }
+    
+    /**
+     * Get the ender chest contents
+     * 
+     * @return The ender chest contents, or null if none were saved
+     */
+    public ItemStack[] getEnderChestContents() {
+        return enderChestContents;
+    }
+    
+    /**
+     * Set the ender chest contents
+     * 
+     * @param enderChestContents The ender chest contents
+     */
+    public void setEnderChestContents(ItemStack[] enderChestContents) {
+        this.enderChestContents = enderChestContents;
+        fingerprints[InventorySection.ENDER_CHEST.ordinal()] = NO_FINGERPRINT;
+    }
+    
+    /**
+     * Get the off hand item
+     * 
+     * @return The off hand item, or null if none was saved
+     */
+    public ItemStack getOffHandItem() {
+        return offHandItem;
+    }
+    
+    /**
+     * Set the off hand item
+     * 
+     * @param offHandItem The off hand item
+     */
+    public void setOffHandItem(ItemStack offHandItem) {
+        this.offHandItem = offHandItem;
+        fingerprints[InventorySection.OFF_HAND.ordinal()] = NO_FINGERPRINT;
+    }
+    
+    /**
+     * Get the fingerprint of a stored section, taken when the section was saved.
+     * Only accessed while holding the player's data lock.
+     * 
+     * @param section The inventory section
+     * @return The fingerprint, or {@link #NO_FINGERPRINT} if unknown
+     */
+    public long getFingerprint(InventorySection section) {
+        return fingerprints[section.ordinal()];
+    }
+    
+    /**
+     * Set the fingerprint of a stored section.
+     * Setting a section's contents resets its fingerprint, so set this afterwards.
+     * 
+     * @param section The inventory section
+     * @param fingerprint The fingerprint of the stored contents
+     */
+    public void setFingerprint(InventorySection section, long fingerprint) {
+        fingerprints[section.ordinal()] = fingerprint;
+    }
+    
+    /**
+     * Copy inventory contents for storing in a profile.
+     * The stacks returned by a live inventory are views of the stacks in its slots, so storing them
+     * would let later changes in the inventory leak into the profile and be read while it is saved.
+     * 
+     * @param contents The contents, one entry per slot
+     * @return A copy of the contents with every stack cloned
+     */
+    public static ItemStack[] copyOf(ItemStack[] contents) {
+        ItemStack[] copy = new ItemStack[contents.length];
+        
+        for (int i = 0; i < contents.length; i++) {
+            copy[i] = copyOf(contents[i]);
+        }
+        
+        return copy;
+    }
+    
+    /**
+     * Copy an item stack for storing in a profile
+     * 
+     * @param item The item stack, or null for an empty slot
+     * @return A clone of the item stack, or null
+     */
+    public static ItemStack copyOf(ItemStack item) {
+        return item != null ? item.clone() : null;
+    }
+}
@@ -0,0 +1,11 @@
+package io.mckenz.modemanager.data;
+
+/**
+ * Sections of a saved mode inventory that are fingerprinted separately
+ */
+public enum InventorySection {
+    INVENTORY,
+    ARMOR,
+    OFF_HAND,
+    ENDER_CHEST
+}
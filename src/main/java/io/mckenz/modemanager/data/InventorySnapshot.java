@@ -0,0 +1,64 @@
+package io.mckenz.modemanager.data;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A version of a player's inventory in one mode, taken when they switched out of that mode
+ */
+public class InventorySnapshot {
+    private final ModeChangeRecord record;
+    private final String inventoryGroup;
+    private final ItemStack[] contents;
+    private final ItemStack[] enderChestContents;
+    
+    /**
+     * Constructor for InventorySnapshot
+     * 
+     * @param record The mode the inventory belongs to, when it was taken and the reason of the switch
+     * @param inventoryGroup The inventory group the player was in
+     * @param contents The inventory contents, or null if only the snapshot's details were read
+     * @param enderChestContents The ender chest contents, or null if the ender chest was not part of the snapshot
+     */
+    public InventorySnapshot(ModeChangeRecord record, String inventoryGroup, ItemStack[] contents, ItemStack[] enderChestContents) {
+        this.record = record;
+        this.inventoryGroup = inventoryGroup;
+        this.contents = contents;
+        this.enderChestContents = enderChestContents;
+    }
+    
+    /**
+     * Get the mode the inventory belongs to, when it was taken and the reason of the switch
+     * 
+     * @return The record
+     */
+    public ModeChangeRecord getRecord() {
+        return record;
+    }
+    
+    /**
+     * Get the inventory group the player was in
+     * 
+     * @return The inventory group name
+     */
+    public String getInventoryGroup() {
+        return inventoryGroup;
+    }
+    
+    /**
+     * Get the inventory contents
+     * 
+     * @return The contents, one entry per inventory slot, or null if only the snapshot's details were read
+     */
+    public ItemStack[] getContents() {
+        return contents;
+    }
+    
+    /**
+     * Get the ender chest contents
+     * 
+     * @return The ender chest contents, or null if the ender chest was not part of the snapshot
+     */
+    public ItemStack[] getEnderChestContents() {
+        return enderChestContents;
+    }
+}
@@ -0,0 +1,104 @@
+package io.mckenz.modemanager.data;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes inventory contents as compact text blobs: the serialized items, deflated and Base64 encoded.
+ * Blobs are kept in player data and snapshot logs as plain strings, so their items are only deserialized when decoded.
+ */
+public final class LoadoutCodec {
+    private static final String ITEMS_KEY = "items";
+    
+    private LoadoutCodec() {
+    }
+    
+    /**
+     * Encode inventory contents
+     * 
+     * @param contents The contents, one entry per slot
+     * @return The blob
+     */
+    public static String encode(ItemStack[] contents) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set(ITEMS_KEY, contents);
+        return pack(config.saveToString());
+    }
+    
+    /**
+     * Decode inventory contents
+     * 
+     * @param blob The blob
+     * @return The contents, one entry per slot
+     * @throws IOException If the blob is not a valid encoding
+     */
+    public static ItemStack[] decode(String blob) throws IOException {
+        YamlConfiguration config = unpack(blob);
+        
+        List<?> items = config.getList(ITEMS_KEY);
+        if (items == null) {
+            throw new IOException("No items");
+        }
+        
+        ItemStack[] contents = new ItemStack[items.size()];
+        for (int i = 0; i < contents.length; i++) {
+            Object item = items.get(i);
+            contents[i] = item instanceof ItemStack ? (ItemStack) item : null;
+        }
+        return contents;
+    }
+    
+    /**
+     * Deflate and Base64 encode serialized YAML
+     * 
+     * @param yaml The YAML text
+     * @return The blob, a single line
+     */
+    static String pack(String yaml) {
+        byte[] bytes = yaml.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream packed = new ByteArrayOutputStream(bytes.length / 4);
+        try (OutputStream out = new DeflaterOutputStream(packed)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            // Writes to a byte array cannot fail
+            throw new IllegalStateException(e);
+        }
+        return Base64.getEncoder().encodeToString(packed.toByteArray());
+    }
+    
+    /**
+     * Decode a blob written by {@link #pack(String)}
+     * 
+     * @param blob The blob
+     * @return The YAML contents
+     * @throws IOException If the blob is not a valid encoding
+     */
+    static YamlConfiguration unpack(String blob) throws IOException {
+        byte[] yaml;
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(blob)))) {
+            yaml = in.readAllBytes();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid Base64", e);
+        }
+        
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(new String(yaml, StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            throw new IOException("Invalid item data", e);
+        }
+        return config;
+    }
+}
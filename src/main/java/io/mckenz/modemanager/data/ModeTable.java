@@ -0,0 +1,252 @@
+package io.mckenz.modemanager.data;
+
+import org.bukkit.GameMode;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Table of the current mode of every online player, stored as one byte per player.
+ * Each online player owns a slot in a dense array; a mode change writes the slot with
+ * release semantics, and joins and quits publish a new slot layout. Readers on any thread
+ * look up the slot and read the byte with acquire semantics, never locking and never
+ * touching {@link PlayerDataManager}.
+ */
+public class ModeTable {
+    private static final VarHandle MODES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle LAYOUT;
+    private static final GameMode[] GAME_MODES = GameMode.values();
+    private static final byte NO_MODE = 0;
+    
+    static {
+        try {
+            LAYOUT = MethodHandles.lookup().findVarHandle(ModeTable.class, "layout", Layout.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    @SuppressWarnings("unused") // Accessed through LAYOUT
+    private Layout layout = new Layout(new UUID[0], new byte[0], Collections.emptyMap());
+    
+    /**
+     * Record a player's current mode
+     * 
+     * @param playerUuid The player UUID
+     * @param mode The player's current mode
+     */
+    public synchronized void put(UUID playerUuid, GameMode mode) {
+        Layout current = currentLayout();
+        Integer slot = current.slots.get(playerUuid);
+        
+        if (slot != null) {
+            // Existing player, publish the new mode in place
+            MODES.setRelease(current.modes, slot.intValue(), encode(mode));
+            return;
+        }
+        
+        int size = current.players.length;
+        UUID[] players = Arrays.copyOf(current.players, size + 1);
+        byte[] modes = copyModes(current.modes, size + 1);
+        Map<UUID, Integer> slots = new HashMap<>(current.slots);
+        
+        players[size] = playerUuid;
+        modes[size] = encode(mode);
+        slots.put(playerUuid, size);
+        
+        LAYOUT.setRelease(this, new Layout(players, modes, Collections.unmodifiableMap(slots)));
+    }
+    
+    /**
+     * Remove a player from the table
+     * 
+     * @param playerUuid The player UUID
+     */
+    public synchronized void remove(UUID playerUuid) {
+        Layout current = currentLayout();
+        Integer slot = current.slots.get(playerUuid);
+        
+        if (slot == null) {
+            return;
+        }
+        
+        // Move the last player into the freed slot to keep the arrays dense
+        int last = current.players.length - 1;
+        UUID[] players = Arrays.copyOf(current.players, last);
+        byte[] modes = copyModes(current.modes, last);
+        Map<UUID, Integer> slots = new HashMap<>(current.slots);
+        slots.remove(playerUuid);
+        
+        if (slot != last) {
+            players[slot] = current.players[last];
+            modes[slot] = (byte) MODES.getAcquire(current.modes, last);
+            slots.put(players[slot], slot);
+        }
+        
+        LAYOUT.setRelease(this, new Layout(players, modes, Collections.unmodifiableMap(slots)));
+    }
+    
+    /**
+     * Get a player's mode from the table
+     * 
+     * @param playerUuid The player UUID
+     * @return The player's mode, or null if the player is not in the table
+     */
+    public GameMode get(UUID playerUuid) {
+        Layout current = currentLayout();
+        Integer slot = current.slots.get(playerUuid);
+        return slot != null ? decode((byte) MODES.getAcquire(current.modes, slot.intValue())) : null;
+    }
+    
+    /**
+     * Get an array view of the online players and their modes
+     * 
+     * @return The view
+     */
+    public View view() {
+        return new View(currentLayout());
+    }
+    
+    /**
+     * Get an immutable snapshot of every online player's mode
+     * 
+     * @return The mode snapshot
+     */
+    public Map<UUID, GameMode> snapshot() {
+        View view = view();
+        Map<UUID, GameMode> result = new HashMap<>(view.size() * 2);
+        
+        for (int slot = 0; slot < view.size(); slot++) {
+            result.put(view.getPlayer(slot), view.getMode(slot));
+        }
+        
+        return Collections.unmodifiableMap(result);
+    }
+    
+    /**
+     * Get an immutable map of the modes of the given players.
+     * Players that are not in the table are left out.
+     * 
+     * @param playerUuids The player UUIDs
+     * @return The modes of the given players
+     */
+    public Map<UUID, GameMode> getAll(Collection<UUID> playerUuids) {
+        Layout current = currentLayout();
+        Map<UUID, GameMode> result = new HashMap<>();
+        
+        for (UUID playerUuid : playerUuids) {
+            Integer slot = current.slots.get(playerUuid);
+            if (slot != null) {
+                result.put(playerUuid, decode((byte) MODES.getAcquire(current.modes, slot.intValue())));
+            }
+        }
+        
+        return Map.copyOf(result);
+    }
+    
+    /**
+     * Read the current slot layout with acquire semantics
+     * 
+     * @return The current layout
+     */
+    private Layout currentLayout() {
+        return (Layout) LAYOUT.getAcquire(this);
+    }
+    
+    /**
+     * Copy a mode array, reading each slot with acquire semantics
+     * 
+     * @param source The array to copy
+     * @param length The length of the new array
+     * @return The copy
+     */
+    private static byte[] copyModes(byte[] source, int length) {
+        byte[] copy = new byte[length];
+        for (int i = 0; i < Math.min(length, source.length); i++) {
+            copy[i] = (byte) MODES.getAcquire(source, i);
+        }
+        return copy;
+    }
+    
+    /**
+     * Encode a game mode as a byte
+     * 
+     * @param mode The game mode
+     * @return The encoded mode
+     */
+    private static byte encode(GameMode mode) {
+        return mode != null ? (byte) (mode.ordinal() + 1) : NO_MODE;
+    }
+    
+    /**
+     * Decode a byte into a game mode
+     * 
+     * @param value The encoded mode
+     * @return The game mode, or null if none is set
+     */
+    private static GameMode decode(byte value) {
+        return value != NO_MODE ? GAME_MODES[value - 1] : null;
+    }
+    
+    /**
+     * Slot layout published on every join and quit
+     */
+    private static final class Layout {
+        private final UUID[] players;
+        private final byte[] modes;
+        private final Map<UUID, Integer> slots;
+        
+        private Layout(UUID[] players, byte[] modes, Map<UUID, Integer> slots) {
+            this.players = players;
+            this.modes = modes;
+            this.slots = slots;
+        }
+    }
+    
+    /**
+     * Array view of the online players at the time the view was taken.
+     * Modes read through the view are always the latest published values.
+     */
+    public static final class View {
+        private final Layout layout;
+        
+        private View(Layout layout) {
+            this.layout = layout;
+        }
+        
+        /**
+         * Get the number of players in the view
+         * 
+         * @return The number of players
+         */
+        public int size() {
+            return layout.players.length;
+        }
+        
+        /**
+         * Get the player in a slot
+         * 
+         * @param slot The slot index
+         * @return The player UUID
+         */
+        public UUID getPlayer(int slot) {
+            return layout.players[slot];
+        }
+        
+        /**
+         * Get the mode of the player in a slot
+         * 
+         * @param slot The slot index
+         * @return The player's mode
+         */
+        public GameMode getMode(int slot) {
+            return decode((byte) MODES.getAcquire(layout.modes, slot));
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package io.mckenz.modemanager.data;
 
 import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.services.RateLimiter;
+import io.mckenz.modemanager.storage.IoExecutor;
+import io.mckenz.modemanager.storage.IoOperation;
 import org.bukkit.GameMode;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -9,17 +13,44 @@ import org.bukkit.inventory.ItemStack;
 import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
- * Manager class for player mode data
+ * Manager class for player mode data.
+ * Lookups of loaded data never lock, so other plugins may read through the API from any thread.
+ * Mutations and save snapshots of one player are serialized by a striped lock, and file
+ * writes of one player are serialized by a second striped lock so slow disk I/O never
+ * holds up a mutation.
  */
 public class PlayerDataManager {
+    private static final int LOCK_STRIPES = 64;
+    
     private final ModeManager plugin;
-    private final Map<UUID, PlayerModeData> playerData = new HashMap<>();
+    private final Map<UUID, PlayerModeData> playerData = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<PlayerModeData>> pendingLoads = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> writtenVersions = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Void>> pendingPlayerFileWrites = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final Object[] dataLocks = newLocks();
+    private final Object[] fileLocks = newLocks();
+    private final AtomicLong saveVersion = new AtomicLong();
     private final File dataFolder;
     
     /**
@@ -55,76 +86,263 @@ public class PlayerDataManager {
      */
     public PlayerModeData getPlayerData(UUID playerUuid) {
         PlayerModeData data = playerData.get(playerUuid);
+        if (data != null) {
+            return data;
+        }
         
-        if (data == null) {
-            // Try to load from disk
-            data = loadPlayerData(playerUuid);
+        // Only one thread loads a given player, everyone else waits for its result
+        CompletableFuture<PlayerModeData> load = new CompletableFuture<>();
+        CompletableFuture<PlayerModeData> existing = pendingLoads.putIfAbsent(playerUuid, load);
+        if (existing != null) {
+            return existing.join();
+        }
+        
+        try {
+            data = playerData.get(playerUuid);
             
             if (data == null) {
-                // Create new data with default mode
-                GameMode defaultMode = getDefaultGameMode();
-                data = new PlayerModeData(playerUuid, defaultMode);
-                plugin.logDebug("Created new player data for " + playerUuid + " with default mode " + defaultMode);
+                // Try to load from disk
+                data = loadPlayerData(playerUuid);
+                
+                if (data == null) {
+                    // Create new data with default mode
+                    GameMode defaultMode = getDefaultGameMode();
+                    data = new PlayerModeData(playerUuid, defaultMode);
+                    dirtyPlayers.add(playerUuid);
+                    plugin.logDebug("Created new player data for " + playerUuid + " with default mode " + defaultMode);
+                }
+                
+                playerData.put(playerUuid, data);
             }
             
-            playerData.put(playerUuid, data);
+            load.complete(data);
+            return data;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingLoads.remove(playerUuid, load);
         }
-        
-        return data;
     }
     
     /**
-     * Save player mode data
+     * Load a joining player's data on the I/O executor, so their join only reads it from memory.
+     * Called from the asynchronous pre-login thread, which waits for the load to finish.
      * 
      * @param playerUuid The player UUID
      */
-    public void savePlayerData(UUID playerUuid) {
-        PlayerModeData data = playerData.get(playerUuid);
-        
-        if (data == null) {
-            plugin.logDebug("No data to save for player " + playerUuid);
+    public void preloadPlayerData(UUID playerUuid) {
+        if (playerData.containsKey(playerUuid)) {
             return;
         }
         
-        File playerFile = new File(dataFolder, playerUuid.toString() + ".yml");
-        YamlConfiguration config = new YamlConfiguration();
+        try {
+            plugin.getIoExecutor().submit(IoOperation.PLAYER_DATA_LOAD, () -> getPlayerData(playerUuid)).join();
+        } catch (CompletionException | CancellationException e) {
+            // The join loads the data itself if the preload failed
+            plugin.getLogger().log(Level.WARNING, "Failed to preload player data for " + playerUuid, e);
+        }
+    }
+    
+    /**
+     * Get player mode data only if it is already loaded.
+     * Never touches the disk, so it is safe to call from any thread without waiting.
+     * 
+     * @param playerUuid The player UUID
+     * @return The player mode data, or null if it is not loaded
+     */
+    public PlayerModeData getLoadedPlayerData(UUID playerUuid) {
+        return playerData.get(playerUuid);
+    }
+    
+    /**
+     * Run a mutation of a player's data while holding that player's data lock.
+     * Save snapshots of the same player wait for the mutation to finish, so they never see it half applied.
+     * The player is marked as changed until their data is saved again.
+     * 
+     * @param playerUuid The player UUID
+     * @param mutation The mutation to run
+     * @param <T> The result type
+     * @return The result of the mutation
+     */
+    public <T> T mutate(UUID playerUuid, Supplier<T> mutation) {
+        synchronized (lockFor(dataLocks, playerUuid)) {
+            T result = mutation.get();
+            dirtyPlayers.add(playerUuid);
+            return result;
+        }
+    }
+    
+    /**
+     * Get the players whose loaded data changed since it was last saved
+     * 
+     * @return The UUIDs of the changed players
+     */
+    public List<UUID> getDirtyPlayers() {
+        return new ArrayList<>(dirtyPlayers);
+    }
+    
+    /**
+     * Save player mode data on the I/O executor, within the server-wide save limit.
+     * The snapshot is taken on the calling thread; writes of the same player run in order.
+     * 
+     * @param playerUuid The player UUID
+     * @return A future completed when the data has been written
+     */
+    public CompletableFuture<Void> savePlayerDataAsync(UUID playerUuid) {
+        return savePlayerDataAsync(playerUuid, true);
+    }
+    
+    /**
+     * Save player mode data on the I/O executor.
+     * Unthrottled saves are for data that must reach the disk promptly, such as a quitting player's:
+     * they skip the save limit and the player's queued writes. Every write of the player file carries
+     * a version, so an older snapshot still queued is skipped once a newer one was written.
+     * 
+     * @param playerUuid The player UUID
+     * @param throttled True to wait for the server-wide save limit and the player's queued writes
+     * @return A future completed when the data has been written
+     */
+    public CompletableFuture<Void> savePlayerDataAsync(UUID playerUuid, boolean throttled) {
+        YamlConfiguration config = takeSnapshot(playerUuid);
+        if (config == null) {
+            return CompletableFuture.completedFuture(null);
+        }
         
-        // Save basic data
-        config.set("uuid", playerUuid.toString());
-        config.set("current-mode", data.getCurrentMode().name());
-        config.set("last-mode-switch", data.getLastModeSwitch().getEpochSecond());
+        long version = saveVersion.incrementAndGet();
+        IoExecutor io = plugin.getIoExecutor();
+        RateLimiter limiter = plugin.getRateLimiter();
+        Supplier<CompletableFuture<Void>> save = () -> io.run(IoOperation.PLAYER_DATA_SAVE, () -> writeSnapshot(playerUuid, config, version));
         
-        // Save inventories
-        if (data.getSurvivalInventory() != null) {
-            config.set("survival.inventory", data.getSurvivalInventory());
+        CompletableFuture<Void> fileWrite;
+        CompletableFuture<Void> write;
+        if (throttled) {
+            // Saves beyond the server-wide save limit wait for a token before reaching the I/O executor
+            write = pendingWrites.compute(playerUuid, (uuid, previous) -> previous == null
+                    ? limiter.throttleSave(save)
+                    : previous.handle((result, error) -> null)
+                              .thenCompose(ignored -> limiter.throttleSave(save)));
+            fileWrite = write;
+        } else {
+            // Written at once; group loads still wait for it along with the writes queued before it
+            CompletableFuture<Void> immediate = save.get();
+            write = pendingWrites.compute(playerUuid, (uuid, previous) -> previous == null
+                    ? immediate
+                    : CompletableFuture.allOf(previous.handle((result, error) -> null), immediate));
+            fileWrite = immediate;
         }
         
-        if (data.getSurvivalArmorContents() != null) {
-            config.set("survival.armor", data.getSurvivalArmorContents());
-        }
+        // Reads of the player file only wait for its newest write, since older snapshots are skipped once it is on disk
+        pendingPlayerFileWrites.put(playerUuid, fileWrite);
+        fileWrite.whenComplete((result, error) -> pendingPlayerFileWrites.remove(playerUuid, fileWrite));
+        write.whenComplete((result, error) -> pendingWrites.remove(playerUuid, write));
+        return fileWrite;
+    }
+    
+    /**
+     * Take a consistent snapshot of a player's data under the data lock
+     * 
+     * @param playerUuid The player UUID
+     * @return The YAML snapshot, or null if the player has no loaded data
+     */
+    private YamlConfiguration takeSnapshot(UUID playerUuid) {
+        PlayerModeData data = playerData.get(playerUuid);
         
-        if (data.getSurvivalEnderChestContents() != null) {
-            config.set("survival.enderchest", data.getSurvivalEnderChestContents());
+        if (data == null) {
+            plugin.logDebug("No data to save for player " + playerUuid);
+            return null;
         }
         
-        if (data.getSurvivalOffHandItem() != null) {
-            config.set("survival.offhand", data.getSurvivalOffHandItem());
+        synchronized (lockFor(dataLocks, playerUuid)) {
+            dirtyPlayers.remove(playerUuid);
+            return createSnapshot(playerUuid, data);
         }
-        
-        if (data.getCreativeInventory() != null) {
-            config.set("creative.inventory", data.getCreativeInventory());
+    }
+    
+    /**
+     * Wait for a queued save of a player to finish so their file is up to date
+     * 
+     * @param playerUuid The player UUID
+     */
+    private void awaitPendingWrite(UUID playerUuid) {
+        CompletableFuture<Void> pendingWrite = pendingPlayerFileWrites.get(playerUuid);
+        if (pendingWrite != null) {
+            pendingWrite.handle((result, error) -> null).join();
         }
+    }
+    
+    /**
+     * Write a snapshot to the player's file under the file lock
+     * 
+     * @param playerUuid The player UUID
+     * @param config The YAML snapshot
+     * @param version The snapshot version
+     * @return True if the snapshot, or a newer one, is on disk
+     */
+    private boolean writeSnapshot(UUID playerUuid, YamlConfiguration config, long version) {
+        File playerFile = new File(dataFolder, playerUuid.toString() + ".yml");
         
-        if (data.getCreativeArmorContents() != null) {
-            config.set("creative.armor", data.getCreativeArmorContents());
+        synchronized (lockFor(fileLocks, playerUuid)) {
+            // A newer snapshot already reached the disk while this one was waiting
+            Long written = writtenVersions.get(playerUuid);
+            if (written != null && written > version) {
+                plugin.logDebug("Skipped stale save for player " + playerUuid);
+                return true;
+            }
+            
+            try {
+                plugin.getYamlStore().save(config, playerFile);
+                writtenVersions.put(playerUuid, version);
+                plugin.logDebug("Saved player data for " + playerUuid);
+                return true;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + playerUuid, e);
+                
+                // Try again on the next autosave while the player is still loaded
+                if (playerData.containsKey(playerUuid)) {
+                    dirtyPlayers.add(playerUuid);
+                }
+                return false;
+            }
         }
+    }
+    
+    /**
+     * Read a player's file under the file lock, recovering it from a backup if it is corrupt
+     * 
+     * @param playerUuid The player UUID
+     * @return The player's YAML data, or null if the player has no valid file
+     */
+    private YamlConfiguration readPlayerFile(UUID playerUuid) {
+        File playerFile = new File(dataFolder, playerUuid.toString() + ".yml");
         
-        if (data.getCreativeEnderChestContents() != null) {
-            config.set("creative.enderchest", data.getCreativeEnderChestContents());
+        synchronized (lockFor(fileLocks, playerUuid)) {
+            return plugin.getYamlStore().load(playerFile);
         }
+    }
+    
+    /**
+     * Build the YAML representation of a player's data
+     * 
+     * @param playerUuid The player UUID
+     * @param data The player mode data
+     * @return The YAML snapshot
+     */
+    private YamlConfiguration createSnapshot(UUID playerUuid, PlayerModeData data) {
+        YamlConfiguration config = new YamlConfiguration();
+        
+        // Save basic data
+        config.set("uuid", playerUuid.toString());
+        config.set("current-mode", data.getCurrentMode().name());
+        config.set("last-mode-switch", data.getLastModeSwitch().getEpochSecond());
         
-        if (data.getCreativeOffHandItem() != null) {
-            config.set("creative.offhand", data.getCreativeOffHandItem());
+        // Save the profiles of the active inventory group; other groups have files of their own
+        config.set("inventory-group", data.getInventoryGroup());
+        writeProfiles(config, data.getProfiles());
+        
+        // Save loadouts as they are, still encoded
+        for (Map.Entry<String, String> loadout : data.getLoadouts().entrySet()) {
+            config.set("loadouts." + loadout.getKey(), loadout.getValue());
         }
         
         // Save mode history
@@ -136,12 +354,160 @@ public class PlayerDataManager {
             i++;
         }
         
-        try {
-            config.save(playerFile);
-            plugin.logDebug("Saved player data for " + playerUuid);
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + playerUuid, e);
+        return config;
+    }
+    
+    /**
+     * Write inventory profiles to a player file, one section per game mode
+     * 
+     * @param config The YAML file contents
+     * @param profiles The profiles by game mode
+     */
+    private static void writeProfiles(ConfigurationSection config, Map<GameMode, InventoryProfile> profiles) {
+        for (Map.Entry<GameMode, InventoryProfile> entry : profiles.entrySet()) {
+            String path = profilePath(entry.getKey());
+            InventoryProfile profile = entry.getValue();
+            
+            if (profile.getInventory() != null) {
+                config.set(path + ".inventory", profile.getInventory());
+            }
+            
+            if (profile.getArmorContents() != null) {
+                config.set(path + ".armor", profile.getArmorContents());
+            }
+            
+            if (profile.getEnderChestContents() != null) {
+                config.set(path + ".enderchest", profile.getEnderChestContents());
+            }
+            
+            if (profile.getOffHandItem() != null) {
+                config.set(path + ".offhand", profile.getOffHandItem());
+            }
+        }
+    }
+    
+    /**
+     * Read the inventory profiles in a player file; modes without a saved section get a profile when first used
+     * 
+     * @param config The YAML file contents
+     * @return The profiles by game mode
+     */
+    private static Map<GameMode, InventoryProfile> readProfiles(ConfigurationSection config) {
+        Map<GameMode, InventoryProfile> profiles = new EnumMap<>(GameMode.class);
+        
+        for (GameMode mode : GameMode.values()) {
+            String path = profilePath(mode);
+            if (!config.isConfigurationSection(path)) {
+                continue;
+            }
+            
+            InventoryProfile profile = new InventoryProfile();
+            
+            if (config.contains(path + ".inventory")) {
+                profile.setInventory(config.getList(path + ".inventory").toArray(new ItemStack[0]));
+            }
+            
+            if (config.contains(path + ".armor")) {
+                profile.setArmorContents(config.getList(path + ".armor").toArray(new ItemStack[0]));
+            }
+            
+            if (config.contains(path + ".enderchest")) {
+                profile.setEnderChestContents(config.getList(path + ".enderchest").toArray(new ItemStack[0]));
+            }
+            
+            if (config.contains(path + ".offhand")) {
+                profile.setOffHandItem((ItemStack) config.get(path + ".offhand"));
+            }
+            
+            profiles.put(mode, profile);
         }
+        
+        return profiles;
+    }
+    
+    /**
+     * Get the section of a player file holding a game mode's inventory profile
+     * 
+     * @param mode The game mode
+     * @return The section path, for example survival or creative
+     */
+    private static String profilePath(GameMode mode) {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Get the file holding a player's profiles of an inventory group they are not in
+     * 
+     * @param playerUuid The player UUID
+     * @param group The inventory group name
+     * @return The group file
+     */
+    private File groupFile(UUID playerUuid, String group) {
+        return new File(dataFolder, "groups" + File.separator + group + File.separator + playerUuid + ".yml");
+    }
+    
+    /**
+     * Read a player's profiles of an inventory group on the I/O executor.
+     * Runs after the player's queued writes, so a group the player just left is read back as written.
+     * 
+     * @param playerUuid The player UUID
+     * @param group The inventory group name
+     * @return A future completed with the profiles by game mode, empty if the player never used the group
+     */
+    public CompletableFuture<Map<GameMode, InventoryProfile>> loadInventoryGroupAsync(UUID playerUuid, String group) {
+        CompletableFuture<Void> pendingWrite = pendingWrites.get(playerUuid);
+        CompletableFuture<Void> previous = pendingWrite != null
+                ? pendingWrite.handle((result, error) -> null)
+                : CompletableFuture.completedFuture(null);
+        
+        return previous.thenCompose(ignored -> plugin.getIoExecutor().submit(IoOperation.INVENTORY_GROUP_LOAD, () -> {
+            YamlConfiguration config;
+            synchronized (lockFor(fileLocks, playerUuid)) {
+                config = plugin.getYamlStore().load(groupFile(playerUuid, group));
+            }
+            
+            plugin.logDebug("Loaded inventory group " + group + " for " + playerUuid);
+            return config != null ? readProfiles(config) : new EnumMap<>(GameMode.class);
+        }));
+    }
+    
+    /**
+     * Save a player's profiles of an inventory group they left on the I/O executor.
+     * The snapshot is taken on the calling thread; the write is queued with the player's other writes.
+     * 
+     * @param playerUuid The player UUID
+     * @param group The inventory group name
+     * @param profiles The group's profiles by game mode
+     * @return A future completed when the profiles have been written
+     */
+    public CompletableFuture<Void> saveInventoryGroupAsync(UUID playerUuid, String group, Map<GameMode, InventoryProfile> profiles) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("uuid", playerUuid.toString());
+        config.set("inventory-group", group);
+        writeProfiles(config, profiles);
+        
+        IoExecutor io = plugin.getIoExecutor();
+        RateLimiter limiter = plugin.getRateLimiter();
+        Supplier<CompletableFuture<Void>> save = () -> io.run(IoOperation.INVENTORY_GROUP_SAVE, () -> {
+            File file = groupFile(playerUuid, group);
+            
+            synchronized (lockFor(fileLocks, playerUuid)) {
+                try {
+                    plugin.getYamlStore().save(config, file);
+                    plugin.logDebug("Saved inventory group " + group + " for " + playerUuid);
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to save inventory group " + group + " for " + playerUuid, e);
+                }
+            }
+        });
+        
+        CompletableFuture<Void> write = pendingWrites.compute(playerUuid, (uuid, previous) -> previous == null
+                ? limiter.throttleSave(save)
+                : previous.handle((result, error) -> null)
+                          .thenCompose(ignored -> limiter.throttleSave(save)));
+        
+        write.whenComplete((result, error) -> pendingWrites.remove(playerUuid, write));
+        return write;
     }
     
     /**
@@ -151,65 +517,110 @@ public class PlayerDataManager {
      * @return The player mode data, or null if it doesn't exist
      */
     private PlayerModeData loadPlayerData(UUID playerUuid) {
-        File playerFile = new File(dataFolder, playerUuid.toString() + ".yml");
+        awaitPendingWrite(playerUuid);
         
-        if (!playerFile.exists()) {
+        YamlConfiguration config = readPlayerFile(playerUuid);
+        
+        if (config == null) {
             plugin.logDebug("No player data file found for " + playerUuid);
             return null;
         }
         
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(playerFile);
-        
         // Load basic data
         GameMode currentMode = GameMode.valueOf(config.getString("current-mode", getDefaultGameMode().name()));
         Instant lastModeSwitch = Instant.ofEpochSecond(config.getLong("last-mode-switch", Instant.now().getEpochSecond()));
         
         PlayerModeData data = new PlayerModeData(playerUuid, currentMode);
+        data.setLastModeSwitch(lastModeSwitch);
         
-        // Load inventories
-        if (config.contains("survival.inventory")) {
-            data.setSurvivalInventory(config.getList("survival.inventory").toArray(new ItemStack[0]));
-        }
-        
-        if (config.contains("survival.armor")) {
-            data.setSurvivalArmorContents(config.getList("survival.armor").toArray(new ItemStack[0]));
-        }
+        // Load the profiles of the active inventory group; files written before groups existed have only the default group
+        data.replaceProfiles(config.getString("inventory-group", PlayerModeData.DEFAULT_INVENTORY_GROUP), readProfiles(config));
         
-        if (config.contains("survival.enderchest")) {
-            data.setSurvivalEnderChestContents(config.getList("survival.enderchest").toArray(new ItemStack[0]));
+        // Load loadouts without decoding them; they are decoded when the player loads one
+        ConfigurationSection loadoutsSection = config.getConfigurationSection("loadouts");
+        if (loadoutsSection != null) {
+            for (String name : loadoutsSection.getKeys(false)) {
+                String blob = loadoutsSection.getString(name);
+                if (blob != null) {
+                    data.putLoadout(name, blob);
+                }
+            }
         }
         
-        if (config.contains("survival.offhand")) {
-            data.setSurvivalOffHandItem((ItemStack) config.get("survival.offhand"));
+        plugin.logDebug("Loaded player data for " + playerUuid);
+        return data;
+    }
+    
+    /**
+     * Read player mode data without keeping it in memory.
+     * Returns the loaded data of online players and reads the file of offline players,
+     * so it may block on disk I/O and should not be called from the main thread.
+     * 
+     * @param playerUuid The player UUID
+     * @return The player mode data, or null if the player has no data
+     */
+    public PlayerModeData readPlayerData(UUID playerUuid) {
+        PlayerModeData data = playerData.get(playerUuid);
+        return data != null ? data : loadPlayerData(playerUuid);
+    }
+    
+    /**
+     * Read a player's mode history without keeping it in memory.
+     * Offline players' history is read from their saved file, so this may block on disk I/O.
+     * 
+     * @param playerUuid The player UUID
+     * @return The mode history, or an empty list if the player has no data
+     */
+    public List<ModeChangeRecord> readModeHistory(UUID playerUuid) {
+        PlayerModeData data = playerData.get(playerUuid);
+        if (data != null) {
+            return data.getModeHistory();
         }
         
-        if (config.contains("creative.inventory")) {
-            data.setCreativeInventory(config.getList("creative.inventory").toArray(new ItemStack[0]));
-        }
+        awaitPendingWrite(playerUuid);
         
-        if (config.contains("creative.armor")) {
-            data.setCreativeArmorContents(config.getList("creative.armor").toArray(new ItemStack[0]));
+        YamlConfiguration config = readPlayerFile(playerUuid);
+        if (config == null) {
+            return List.of();
         }
         
-        if (config.contains("creative.enderchest")) {
-            data.setCreativeEnderChestContents(config.getList("creative.enderchest").toArray(new ItemStack[0]));
+        ConfigurationSection historySection = config.getConfigurationSection("history");
+        if (historySection == null) {
+            return List.of();
         }
         
-        if (config.contains("creative.offhand")) {
-            data.setCreativeOffHandItem((ItemStack) config.get("creative.offhand"));
+        List<ModeChangeRecord> history = new ArrayList<>();
+        for (String key : historySection.getKeys(false)) {
+            try {
+                GameMode mode = GameMode.valueOf(historySection.getString(key + ".mode"));
+                Instant timestamp = Instant.ofEpochSecond(historySection.getLong(key + ".timestamp"));
+                history.add(new ModeChangeRecord(mode, timestamp, historySection.getString(key + ".reason", "")));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                plugin.logDebug("Skipping invalid history entry " + key + " for " + playerUuid);
+            }
         }
         
-        plugin.logDebug("Loaded player data for " + playerUuid);
-        return data;
+        history.sort(Comparator.comparing(ModeChangeRecord::getTimestamp));
+        return history;
     }
     
     /**
-     * Save all player data
+     * Snapshot every loaded player's data for writing later
+     * 
+     * @return Tasks writing each snapshot and returning true if it reached the disk, by player UUID
      */
-    public void saveAllPlayerData() {
+    public Map<UUID, BooleanSupplier> snapshotAllPlayerData() {
+        Map<UUID, BooleanSupplier> writes = new HashMap<>();
+        
         for (UUID playerUuid : playerData.keySet()) {
-            savePlayerData(playerUuid);
+            YamlConfiguration config = takeSnapshot(playerUuid);
+            if (config != null) {
+                long version = saveVersion.incrementAndGet();
+                writes.put(playerUuid, () -> writeSnapshot(playerUuid, config, version));
+            }
         }
+        
+        return writes;
     }
     
     /**
@@ -219,6 +630,33 @@ public class PlayerDataManager {
      */
     public void removePlayerData(UUID playerUuid) {
         playerData.remove(playerUuid);
+        dirtyPlayers.remove(playerUuid);
+    }
+    
+    /**
+     * Create a set of lock objects
+     * 
+     * @return The lock stripes
+     */
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+    
+    /**
+     * Get the lock stripe guarding a player
+     * 
+     * @param locks The lock stripes
+     * @param playerUuid The player UUID
+     * @return The lock object
+     */
+    private static Object lockFor(Object[] locks, UUID playerUuid) {
+        int hash = playerUuid.hashCode();
+        hash ^= hash >>> 16;
+        return locks[hash & (locks.length - 1)];
     }
     
     /**
@@ -1,30 +1,37 @@
 package io.mckenz.modemanager.data;
 
 import org.bukkit.GameMode;
-import org.bukkit.inventory.ItemStack;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 /**
- * Class to store player mode data
+ * Class to store player mode data.
+ * Each game mode's inventory is kept in an {@link InventoryProfile}, allocated the first time the mode is used.
+ * Only the profiles of the player's active inventory group (the world group they are in) are held;
+ * the profiles of other groups stay on disk until the player enters one of their worlds.
+ * Fields are volatile so readers on other threads see the latest values without locking;
+ * writers are serialized through {@link PlayerDataManager#mutate}.
  */
 public class PlayerModeData {
+    /**
+     * Inventory group of worlds not listed in any world group
+     */
+    public static final String DEFAULT_INVENTORY_GROUP = "default";
+    
     private final UUID playerUuid;
-    private GameMode currentMode;
-    private ItemStack[] survivalInventory;
-    private ItemStack[] survivalArmorContents;
-    private ItemStack[] survivalEnderChestContents;
-    private ItemStack survivalOffHandItem;
-    private ItemStack[] creativeInventory;
-    private ItemStack[] creativeArmorContents;
-    private ItemStack[] creativeEnderChestContents;
-    private ItemStack creativeOffHandItem;
-    private Instant lastModeSwitch;
+    private volatile GameMode currentMode;
+    private volatile Instant lastModeSwitch;
     private final List<ModeChangeRecord> modeHistory;
-    private boolean firstModeChangeAfterJoin;
+    private volatile boolean firstModeChangeAfterJoin;
+    private final Map<GameMode, InventoryProfile> profiles = new EnumMap<>(GameMode.class);
+    private volatile String inventoryGroup = DEFAULT_INVENTORY_GROUP;
+    private final Map<String, String> loadouts = new TreeMap<>();
     
     /**
      * Constructor for PlayerModeData
@@ -68,162 +75,150 @@ public class PlayerModeData {
      * @param reason The reason for the mode change
      */
     public void setCurrentMode(GameMode mode, String reason) {
+        Instant now = Instant.now();
+        synchronized (modeHistory) {
+            this.modeHistory.add(new ModeChangeRecord(mode, now, reason));
+        }
+        this.lastModeSwitch = now;
         this.currentMode = mode;
-        this.lastModeSwitch = Instant.now();
-        this.modeHistory.add(new ModeChangeRecord(mode, Instant.now(), reason));
-    }
-    
-    /**
-     * Get the survival inventory
-     * 
-     * @return The survival inventory
-     */
-    public ItemStack[] getSurvivalInventory() {
-        return survivalInventory;
-    }
-    
-    /**
-     * Set the survival inventory
-     * 
-     * @param survivalInventory The survival inventory
-     */
-    public void setSurvivalInventory(ItemStack[] survivalInventory) {
-        this.survivalInventory = survivalInventory;
-    }
-    
-    /**
-     * Get the survival armor contents
-     * 
-     * @return The survival armor contents
-     */
-    public ItemStack[] getSurvivalArmorContents() {
-        return survivalArmorContents;
     }
     
     /**
-     * Set the survival armor contents
+     * Get the inventory profile of a game mode
      * 
-     * @param survivalArmorContents The survival armor contents
+     * @param mode The game mode
+     * @return The profile, or null if the player has never had an inventory saved in that mode
      */
-    public void setSurvivalArmorContents(ItemStack[] survivalArmorContents) {
-        this.survivalArmorContents = survivalArmorContents;
+    public InventoryProfile getProfile(GameMode mode) {
+        synchronized (profiles) {
+            return profiles.get(mode);
+        }
     }
     
     /**
-     * Get the survival ender chest contents
+     * Get the inventory profile of a game mode, creating it the first time the mode is used
      * 
-     * @return The survival ender chest contents
+     * @param mode The game mode
+     * @return The profile
      */
-    public ItemStack[] getSurvivalEnderChestContents() {
-        return survivalEnderChestContents;
+    public InventoryProfile getOrCreateProfile(GameMode mode) {
+        synchronized (profiles) {
+            return profiles.computeIfAbsent(mode, key -> new InventoryProfile());
+        }
     }
     
     /**
-     * Set the survival ender chest contents
+     * Get the inventory profiles that exist
      * 
-     * @param survivalEnderChestContents The survival ender chest contents
+     * @return A copy of the profiles by game mode
      */
-    public void setSurvivalEnderChestContents(ItemStack[] survivalEnderChestContents) {
-        this.survivalEnderChestContents = survivalEnderChestContents;
+    public Map<GameMode, InventoryProfile> getProfiles() {
+        synchronized (profiles) {
+            return new EnumMap<>(profiles);
+        }
     }
     
     /**
-     * Get the survival off hand item
+     * Get the inventory group the held profiles belong to
      * 
-     * @return The survival off hand item
+     * @return The inventory group name
      */
-    public ItemStack getSurvivalOffHandItem() {
-        return survivalOffHandItem;
+    public String getInventoryGroup() {
+        return inventoryGroup;
     }
     
     /**
-     * Set the survival off hand item
+     * Replace the held profiles with those of another inventory group
      * 
-     * @param survivalOffHandItem The survival off hand item
+     * @param group The inventory group the profiles belong to
+     * @param groupProfiles The group's profiles by game mode
+     * @return The profiles that were held before
      */
-    public void setSurvivalOffHandItem(ItemStack survivalOffHandItem) {
-        this.survivalOffHandItem = survivalOffHandItem;
+    public Map<GameMode, InventoryProfile> replaceProfiles(String group, Map<GameMode, InventoryProfile> groupProfiles) {
+        synchronized (profiles) {
+            Map<GameMode, InventoryProfile> previous = new EnumMap<>(GameMode.class);
+            previous.putAll(profiles);
+            profiles.clear();
+            profiles.putAll(groupProfiles);
+            inventoryGroup = group;
+            return previous;
+        }
     }
     
     /**
-     * Get the creative inventory
+     * Get an encoded loadout
      * 
-     * @return The creative inventory
+     * @param name The loadout name
+     * @return The encoded loadout, or null if the player has no loadout of that name
      */
-    public ItemStack[] getCreativeInventory() {
-        return creativeInventory;
+    public String getLoadout(String name) {
+        synchronized (loadouts) {
+            return loadouts.get(name);
+        }
     }
     
     /**
-     * Set the creative inventory
+     * Store an encoded loadout, replacing one of the same name
      * 
-     * @param creativeInventory The creative inventory
+     * @param name The loadout name
+     * @param blob The encoded loadout
      */
-    public void setCreativeInventory(ItemStack[] creativeInventory) {
-        this.creativeInventory = creativeInventory;
+    public void putLoadout(String name, String blob) {
+        synchronized (loadouts) {
+            loadouts.put(name, blob);
+        }
     }
     
     /**
-     * Get the creative armor contents
+     * Remove a loadout
      * 
-     * @return The creative armor contents
+     * @param name The loadout name
+     * @return True if the loadout existed
      */
-    public ItemStack[] getCreativeArmorContents() {
-        return creativeArmorContents;
+    public boolean removeLoadout(String name) {
+        synchronized (loadouts) {
+            return loadouts.remove(name) != null;
+        }
     }
     
     /**
-     * Set the creative armor contents
+     * Get the names of the player's loadouts
      * 
-     * @param creativeArmorContents The creative armor contents
+     * @return The loadout names in alphabetical order
      */
-    public void setCreativeArmorContents(ItemStack[] creativeArmorContents) {
-        this.creativeArmorContents = creativeArmorContents;
+    public List<String> getLoadoutNames() {
+        synchronized (loadouts) {
+            return new ArrayList<>(loadouts.keySet());
+        }
     }
     
     /**
-     * Get the creative ender chest contents
+     * Get the encoded loadouts
      * 
-     * @return The creative ender chest contents
+     * @return A copy of the encoded loadouts by name
      */
-    public ItemStack[] getCreativeEnderChestContents() {
-        return creativeEnderChestContents;
+    public Map<String, String> getLoadouts() {
+        synchronized (loadouts) {
+            return new TreeMap<>(loadouts);
+        }
     }
     
     /**
-     * Set the creative ender chest contents
-     * 
-     * @param creativeEnderChestContents The creative ender chest contents
-     */
-    public void setCreativeEnderChestContents(ItemStack[] creativeEnderChestContents) {
-        this.creativeEnderChestContents = creativeEnderChestContents;
-    }
-    
-    /**
-     * Get the creative off hand item
-     * 
-     * @return The creative off hand item
-     */
-    public ItemStack getCreativeOffHandItem() {
-        return creativeOffHandItem;
-    }
-    
-    /**
-     * Set the creative off hand item
+     * Get the last mode switch time
      * 
-     * @param creativeOffHandItem The creative off hand item
+     * @return The last mode switch time
      */
-    public void setCreativeOffHandItem(ItemStack creativeOffHandItem) {
-        this.creativeOffHandItem = creativeOffHandItem;
+    public Instant getLastModeSwitch() {
+        return lastModeSwitch;
     }
     
     /**
-     * Get the last mode switch time
+     * Restore the last mode switch time when loading saved data
      * 
-     * @return The last mode switch time
+     * @param lastModeSwitch The last mode switch time
      */
-    public Instant getLastModeSwitch() {
-        return lastModeSwitch;
+    void setLastModeSwitch(Instant lastModeSwitch) {
+        this.lastModeSwitch = lastModeSwitch;
     }
     
     /**
@@ -232,7 +227,9 @@ public class PlayerModeData {
      * @return The mode history
      */
     public List<ModeChangeRecord> getModeHistory() {
-        return new ArrayList<>(modeHistory);
+        synchronized (modeHistory) {
+            return new ArrayList<>(modeHistory);
+        }
     }
     
     /**
@@ -273,4 +270,4 @@ public class PlayerModeData {
     public void setFirstModeChangeAfterJoin(boolean firstModeChangeAfterJoin) {
         this.firstModeChangeAfterJoin = firstModeChangeAfterJoin;
     }
-} 
\ No newline at end of file
+}
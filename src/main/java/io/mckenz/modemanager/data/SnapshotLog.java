@@ -0,0 +1,487 @@
+package io.mckenz.modemanager.data;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.storage.IoOperation;
+import org.bukkit.GameMode;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player log of the inventories players switch out of, for rolling back a switch that went wrong.
+ * Each line of playerdata/snapshots/&lt;uuid&gt;.log is one snapshot, packed like a loadout.
+ * A snapshot stores only the slots that changed since the previous snapshot of the same mode; the first
+ * snapshot of a mode after the player's data is loaded, and every {@link #KEYFRAME_INTERVAL}th one after
+ * that, store every slot, so rebuilding any version applies a bounded number of changes.
+ * Once a log holds twice inventories.snapshots.retention snapshots it is cut back to the newest ones.
+ * All reads and writes of a player's log run in order on the I/O executor.
+ */
+public class SnapshotLog {
+    private static final int KEYFRAME_INTERVAL = 8;
+    
+    private final ModeManager plugin;
+    private final File folder;
+    private final Map<UUID, Map<GameMode, Base>> bases = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> lineCounts = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<?>> pendingOperations = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor for SnapshotLog
+     * 
+     * @param plugin The plugin instance
+     */
+    public SnapshotLog(ModeManager plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "playerdata" + File.separator + "snapshots");
+    }
+    
+    /**
+     * Get the number of snapshots kept per player
+     * 
+     * @return The retention, 0 if snapshots are disabled
+     */
+    public int getRetention() {
+        return Math.max(0, plugin.getConfig().getInt("inventories.snapshots.retention", 20));
+    }
+    
+    /**
+     * Append a snapshot of an inventory to a player's log.
+     * Must be called on the thread owning the player; the changed slots are worked out and
+     * serialized there, and the line is written on the I/O executor.
+     * 
+     * @param playerUuid The player UUID
+     * @param group The inventory group the inventory belongs to
+     * @param mode The mode the inventory belongs to
+     * @param reason The reason of the snapshot
+     * @param contents The inventory contents
+     * @param enderChestContents The ender chest contents, or null if the ender chest is shared between modes
+     */
+    public void record(UUID playerUuid, String group, GameMode mode, String reason,
+                       ItemStack[] contents, ItemStack[] enderChestContents) {
+        int retention = getRetention();
+        if (retention <= 0) {
+            return;
+        }
+        
+        ItemStack[] slots = new ItemStack[contents.length + (enderChestContents != null ? enderChestContents.length : 0)];
+        for (int i = 0; i < slots.length; i++) {
+            ItemStack item = i < contents.length ? contents[i] : enderChestContents[i - contents.length];
+            slots[i] = isEmpty(item) ? null : item.clone();
+        }
+        
+        Map<GameMode, Base> playerBases = bases.computeIfAbsent(playerUuid, uuid -> new EnumMap<>(GameMode.class));
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("mode", mode.name());
+        config.set("group", group);
+        config.set("time", System.currentTimeMillis());
+        config.set("reason", reason);
+        config.set("inventory-size", contents.length);
+        config.set("size", slots.length);
+        
+        synchronized (playerBases) {
+            Base base = playerBases.get(mode);
+            boolean full = base == null || base.slots.length != slots.length || base.changesSinceFull + 1 >= KEYFRAME_INTERVAL;
+            config.set("full", full);
+            
+            List<Integer> cleared = new ArrayList<>();
+            for (int i = 0; i < slots.length; i++) {
+                if (full || !sameItem(base.slots[i], slots[i])) {
+                    if (slots[i] != null) {
+                        config.set("slots." + i, slots[i]);
+                    } else if (!full) {
+                        cleared.add(i);
+                    }
+                }
+            }
+            
+            if (!cleared.isEmpty()) {
+                config.set("cleared", cleared);
+            }
+            
+            playerBases.put(mode, new Base(slots, full ? 0 : base.changesSinceFull + 1));
+        }
+        
+        String line = LoadoutCodec.pack(config.saveToString());
+        enqueue(playerUuid, IoOperation.SNAPSHOT_APPEND, () -> {
+            append(playerUuid, line, retention);
+            return null;
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("Failed to write an inventory snapshot of " + playerUuid + ": " + error.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Forget the snapshots a player's next snapshots are compared with, so the next one of each mode stores every slot.
+     * Called when the player moves to another inventory group, whose inventories the old snapshots say nothing about.
+     * 
+     * @param playerUuid The player UUID
+     */
+    public void resetBases(UUID playerUuid) {
+        bases.remove(playerUuid);
+    }
+    
+    /**
+     * Forget a player's in-memory state when they leave, once their queued snapshots are written
+     * 
+     * @param playerUuid The player UUID
+     */
+    public void clearPlayer(UUID playerUuid) {
+        bases.remove(playerUuid);
+        CompletableFuture<?> pending = pendingOperations.get(playerUuid);
+        if (pending != null) {
+            pending.whenComplete((result, error) -> lineCounts.remove(playerUuid));
+        } else {
+            lineCounts.remove(playerUuid);
+        }
+    }
+    
+    /**
+     * Read the details of a player's snapshots without their items' slots being rebuilt
+     * 
+     * @param playerUuid The player UUID
+     * @return A future completed with the snapshots, newest first, without contents
+     */
+    public CompletableFuture<List<InventorySnapshot>> listAsync(UUID playerUuid) {
+        return enqueue(playerUuid, IoOperation.SNAPSHOT_READ, () -> {
+            List<Entry> entries = readEntries(playerUuid);
+            List<InventorySnapshot> snapshots = new ArrayList<>(entries.size());
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                Entry entry = entries.get(i);
+                snapshots.add(new InventorySnapshot(entry.record, entry.group, null, null));
+            }
+            return snapshots;
+        });
+    }
+    
+    /**
+     * Rebuild a version of a player's inventory from their log
+     * 
+     * @param playerUuid The player UUID
+     * @param version The version, 1 for the newest snapshot
+     * @return A future completed with the snapshot, or null if the version is not retained
+     */
+    public CompletableFuture<InventorySnapshot> rebuildAsync(UUID playerUuid, int version) {
+        return enqueue(playerUuid, IoOperation.SNAPSHOT_READ, () -> {
+            List<Entry> entries = readEntries(playerUuid);
+            int index = entries.size() - version;
+            if (version < 1 || index < 0) {
+                return null;
+            }
+            
+            Entry entry = entries.get(index);
+            ItemStack[] slots = rebuild(entries, index);
+            if (slots == null) {
+                return null;
+            }
+            
+            ItemStack[] contents = Arrays.copyOf(slots, entry.inventorySize);
+            ItemStack[] enderChest = slots.length > entry.inventorySize
+                    ? Arrays.copyOfRange(slots, entry.inventorySize, slots.length) : null;
+            return new InventorySnapshot(entry.record, entry.group, contents, enderChest);
+        });
+    }
+    
+    /**
+     * Run an operation on a player's log after the operations queued before it
+     * 
+     * @param playerUuid The player UUID
+     * @param operation The I/O operation type
+     * @param task The operation
+     * @param <T> The result type
+     * @return A future completed with the operation's result
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> enqueue(UUID playerUuid, IoOperation operation, Callable<T> task) {
+        CompletableFuture<?> queued = pendingOperations.compute(playerUuid, (uuid, previous) -> previous == null
+                ? plugin.getIoExecutor().submit(operation, task)
+                : previous.handle((result, error) -> null)
+                          .thenCompose(ignored -> plugin.getIoExecutor().submit(operation, task)));
+        
+        queued.whenComplete((result, error) -> pendingOperations.remove(playerUuid, queued));
+        return (CompletableFuture<T>) queued;
+    }
+    
+    /**
+     * Append a line to a player's log, cutting the log back once it holds twice the retention
+     * 
+     * @param playerUuid The player UUID
+     * @param line The packed snapshot
+     * @param retention The number of snapshots to keep
+     * @throws IOException If the log could not be written
+     */
+    private void append(UUID playerUuid, String line, int retention) throws IOException {
+        Path file = fileFor(playerUuid);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, line + "\n", StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        
+        Integer known = lineCounts.get(playerUuid);
+        int count = known != null ? known + 1 : Files.readAllLines(file, StandardCharsets.UTF_8).size();
+        
+        if (count > retention * 2) {
+            count = compact(playerUuid, retention);
+        }
+        lineCounts.put(playerUuid, count);
+    }
+    
+    /**
+     * Cut a player's log back to the newest snapshots.
+     * The first kept snapshot of each mode is rewritten with every slot, as the snapshots it changed are dropped.
+     * 
+     * @param playerUuid The player UUID
+     * @param retention The number of snapshots to keep
+     * @return The number of snapshots kept
+     * @throws IOException If the log could not be written
+     */
+    private int compact(UUID playerUuid, int retention) throws IOException {
+        List<Entry> entries = readEntries(playerUuid);
+        List<String> kept = new ArrayList<>(retention);
+        Set<GameMode> modes = EnumSet.noneOf(GameMode.class);
+        
+        for (int i = Math.max(0, entries.size() - retention); i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (!modes.add(entry.record.getGameMode()) || entry.full) {
+                kept.add(entry.line);
+                continue;
+            }
+            
+            ItemStack[] slots = rebuild(entries, i);
+            if (slots != null) {
+                kept.add(fullLine(entry, slots));
+            }
+        }
+        
+        Path file = fileFor(playerUuid);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, kept, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        
+        plugin.logDebug("Compacted the snapshot log of " + playerUuid + " from " + entries.size() + " to " + kept.size() + " snapshots");
+        return kept.size();
+    }
+    
+    /**
+     * Rebuild the slots of a snapshot from the last full snapshot of its mode and the changes after it
+     * 
+     * @param entries The log's snapshots, oldest first
+     * @param index The index of the snapshot
+     * @return The slots, or null if the log holds no full snapshot to start from
+     */
+    private static ItemStack[] rebuild(List<Entry> entries, int index) {
+        GameMode mode = entries.get(index).record.getGameMode();
+        
+        int start = index;
+        while (start >= 0 && (entries.get(start).record.getGameMode() != mode || !entries.get(start).full)) {
+            start--;
+        }
+        if (start < 0) {
+            return null;
+        }
+        
+        ItemStack[] slots = null;
+        for (int i = start; i <= index; i++) {
+            Entry entry = entries.get(i);
+            if (entry.record.getGameMode() != mode) {
+                continue;
+            }
+            
+            if (entry.full || slots == null || slots.length != entry.size) {
+                slots = new ItemStack[entry.size];
+            }
+            
+            for (Map.Entry<Integer, ItemStack> slot : entry.slots.entrySet()) {
+                if (slot.getKey() < slots.length) {
+                    slots[slot.getKey()] = slot.getValue();
+                }
+            }
+            
+            for (int slot : entry.cleared) {
+                if (slot < slots.length) {
+                    slots[slot] = null;
+                }
+            }
+        }
+        return slots;
+    }
+    
+    /**
+     * Pack a snapshot again with every slot
+     * 
+     * @param entry The snapshot
+     * @param slots The snapshot's rebuilt slots
+     * @return The packed snapshot
+     */
+    private static String fullLine(Entry entry, ItemStack[] slots) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("mode", entry.record.getGameMode().name());
+        config.set("group", entry.group);
+        config.set("time", entry.record.getTimestamp().toEpochMilli());
+        config.set("reason", entry.record.getReason());
+        config.set("inventory-size", entry.inventorySize);
+        config.set("size", entry.size);
+        config.set("full", true);
+        
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                config.set("slots." + i, slots[i]);
+            }
+        }
+        return LoadoutCodec.pack(config.saveToString());
+    }
+    
+    /**
+     * Read and unpack a player's log, skipping lines that cannot be read
+     * 
+     * @param playerUuid The player UUID
+     * @return The snapshots, oldest first
+     * @throws IOException If the log exists but could not be read
+     */
+    private List<Entry> readEntries(UUID playerUuid) throws IOException {
+        Path file = fileFor(playerUuid);
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            
+            try {
+                entries.add(Entry.unpack(line));
+            } catch (IOException | IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping unreadable snapshot of " + playerUuid + ": " + e.getMessage());
+            }
+        }
+        return entries;
+    }
+    
+    /**
+     * Get the log file of a player
+     * 
+     * @param playerUuid The player UUID
+     * @return The log path
+     */
+    private Path fileFor(UUID playerUuid) {
+        return new File(folder, playerUuid + ".log").toPath();
+    }
+    
+    /**
+     * Check if two slots hold the same item
+     * 
+     * @param first The first item, or null for an empty slot
+     * @param second The second item, or null for an empty slot
+     * @return True if both are empty or the items are equal
+     */
+    private static boolean sameItem(ItemStack first, ItemStack second) {
+        return first == null ? second == null : first.equals(second);
+    }
+    
+    /**
+     * Check if an item stack represents an empty slot
+     * 
+     * @param item The item stack
+     * @return True if the slot is empty
+     */
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR || item.getAmount() <= 0;
+    }
+    
+    /**
+     * The slots of the last snapshot taken of a mode, which the next snapshot is compared with
+     */
+    private static final class Base {
+        private final ItemStack[] slots;
+        private final int changesSinceFull;
+        
+        private Base(ItemStack[] slots, int changesSinceFull) {
+            this.slots = slots;
+            this.changesSinceFull = changesSinceFull;
+        }
+    }
+    
+    /**
+     * One unpacked line of a log
+     */
+    private static final class Entry {
+        private final String line;
+        private final ModeChangeRecord record;
+        private final String group;
+        private final int inventorySize;
+        private final int size;
+        private final boolean full;
+        private final Map<Integer, ItemStack> slots;
+        private final List<Integer> cleared;
+        
+        private Entry(String line, ModeChangeRecord record, String group, int inventorySize, int size,
+                      boolean full, Map<Integer, ItemStack> slots, List<Integer> cleared) {
+            this.line = line;
+            this.record = record;
+            this.group = group;
+            this.inventorySize = inventorySize;
+            this.size = size;
+            this.full = full;
+            this.slots = slots;
+            this.cleared = cleared;
+        }
+        
+        /**
+         * Unpack a line
+         * 
+         * @param line The packed snapshot
+         * @return The snapshot
+         * @throws IOException If the line is not a valid snapshot
+         */
+        private static Entry unpack(String line) throws IOException {
+            YamlConfiguration config = LoadoutCodec.unpack(line);
+            
+            GameMode mode = GameMode.valueOf(config.getString("mode", ""));
+            ModeChangeRecord record = new ModeChangeRecord(mode, Instant.ofEpochMilli(config.getLong("time")),
+                                                           config.getString("reason", ""));
+            
+            Map<Integer, ItemStack> slots = new HashMap<>();
+            ConfigurationSection section = config.getConfigurationSection("slots");
+            if (section != null) {
+                for (String key : section.getKeys(false)) {
+                    ItemStack item = section.getItemStack(key);
+                    if (item != null) {
+                        slots.put(Integer.parseInt(key), item);
+                    }
+                }
+            }
+            
+            return new Entry(line, record, config.getString("group", PlayerModeData.DEFAULT_INVENTORY_GROUP),
+                             config.getInt("inventory-size"), config.getInt("size"), config.getBoolean("full"),
+                             slots, config.getIntegerList("cleared"));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.mckenz.modemanager.jobs;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A background job split into small units of work.
+ * The {@link JobScheduler} runs units on the main thread, or the global region thread on Folia,
+ * until its tick budget is used up, so a unit should take well under a millisecond.
+ */
+public abstract class Job {
+    private final String name;
+    private final JobPriority priority;
+    private final AtomicLong completedUnits = new AtomicLong();
+    private volatile long totalUnits;
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+    private volatile int id;
+    
+    /**
+     * Constructor for Job
+     * 
+     * @param name The job name shown in /mode admin jobs
+     * @param priority The job priority
+     * @param totalUnits The number of units of work, or -1 if unknown
+     */
+    protected Job(String name, JobPriority priority, long totalUnits) {
+        this.name = name;
+        this.priority = priority;
+        this.totalUnits = totalUnits;
+    }
+    
+    /**
+     * Run one unit of work
+     * 
+     * @return True if the job has finished
+     */
+    protected abstract boolean step();
+    
+    /**
+     * Called on the server thread once the job has finished or was cancelled
+     */
+    protected void onComplete() {
+    }
+    
+    /**
+     * Cancel the job; it stops before its next unit of work
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Check if the job was cancelled
+     * 
+     * @return True if the job was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Check if the job has finished or was cancelled and has stopped running
+     * 
+     * @return True if the job is no longer running
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+    
+    /**
+     * Get the job ID assigned by the scheduler
+     * 
+     * @return The job ID
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Get the job name
+     * 
+     * @return The job name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get the job priority
+     * 
+     * @return The job priority
+     */
+    public JobPriority getPriority() {
+        return priority;
+    }
+    
+    /**
+     * Get the number of units of work done so far
+     * 
+     * @return The completed units
+     */
+    public long getCompletedUnits() {
+        return completedUnits.get();
+    }
+    
+    /**
+     * Get the number of units of work
+     * 
+     * @return The total units, or -1 if unknown
+     */
+    public long getTotalUnits() {
+        return totalUnits;
+    }
+    
+    /**
+     * Set the number of units of work, for jobs that only learn it while running
+     * 
+     * @param totalUnits The total units, or -1 if unknown
+     */
+    protected void setTotalUnits(long totalUnits) {
+        this.totalUnits = totalUnits;
+    }
+    
+    /**
+     * Set the job ID
+     * 
+     * @param id The job ID
+     */
+    void setId(int id) {
+        this.id = id;
+    }
+    
+    /**
+     * Mark the job as no longer running
+     */
+    void markFinished() {
+        finished = true;
+    }
+    
+    /**
+     * Record a finished unit of work
+     */
+    void recordUnit() {
+        completedUnits.incrementAndGet();
+    }
+}
@@ -0,0 +1,11 @@
+package io.mckenz.modemanager.jobs;
+
+/**
+ * Priorities of background jobs.
+ * Jobs of a higher priority use the tick budget first.
+ */
+public enum JobPriority {
+    HIGH,
+    NORMAL,
+    LOW
+}
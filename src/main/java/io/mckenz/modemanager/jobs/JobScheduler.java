@@ -0,0 +1,284 @@
+package io.mckenz.modemanager.jobs;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.util.SchedulerAdapter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cooperative scheduler for background jobs.
+ * Every tick, jobs run units of work in priority order until a time budget is used up. The budget
+ * shrinks from performance.jobs.max-tick-budget-ms towards min-tick-budget-ms as the server's
+ * tick time rises above performance.jobs.target-mspt, so jobs back off while the server is busy.
+ */
+public class JobScheduler {
+    private static final Comparator<Job> ORDER = Comparator.comparing(Job::getPriority).thenComparingInt(Job::getId);
+    private static final double TICK_MILLIS = 50.0;
+    private static final double LAG_RANGE_MILLIS = 10.0;
+    private static final double SMOOTHING = 0.1;
+    
+    private final ModeManager plugin;
+    private final Queue<Job> submitted = new ConcurrentLinkedQueue<>();
+    private final List<Job> jobs = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile Method averageTickTime;
+    private volatile long maxBudgetNanos;
+    private volatile long minBudgetNanos;
+    private volatile double targetMspt;
+    private volatile long currentBudgetNanos;
+    private volatile double mspt;
+    private double averageIntervalMillis = TICK_MILLIS;
+    private long lastTickNanos;
+    private SchedulerAdapter.Task task;
+    
+    /**
+     * Constructor for JobScheduler
+     * 
+     * @param plugin The plugin instance
+     */
+    public JobScheduler(ModeManager plugin) {
+        this.plugin = plugin;
+        this.averageTickTime = findAverageTickTime(plugin);
+        reload();
+        this.currentBudgetNanos = maxBudgetNanos;
+    }
+    
+    /**
+     * Look up the server's average tick time method, available on Paper based servers
+     * 
+     * @param plugin The plugin instance
+     * @return The method, or null if the server does not provide one
+     */
+    private static Method findAverageTickTime(ModeManager plugin) {
+        try {
+            return plugin.getServer().getClass().getMethod("getAverageTickTime");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Reload the tick budget settings from the config
+     */
+    public void reload() {
+        double maxMillis = plugin.getConfig().getDouble("performance.jobs.max-tick-budget-ms", 5.0);
+        double minMillis = plugin.getConfig().getDouble("performance.jobs.min-tick-budget-ms", 0.5);
+        
+        maxBudgetNanos = (long) (Math.max(0.0, maxMillis) * 1_000_000L);
+        minBudgetNanos = Math.min(maxBudgetNanos, (long) (Math.max(0.0, minMillis) * 1_000_000L));
+        targetMspt = Math.min(TICK_MILLIS - 1.0, plugin.getConfig().getDouble("performance.jobs.target-mspt", 40.0));
+    }
+    
+    /**
+     * Start the scheduler task
+     */
+    public void start() {
+        if (task == null) {
+            task = plugin.getScheduler().runGlobalTimer(this::tick, 1L, 1L);
+        }
+    }
+    
+    /**
+     * Stop the scheduler task and cancel every job
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        
+        drainSubmitted();
+        for (Job job : jobs) {
+            job.cancel();
+            finish(job);
+        }
+    }
+    
+    /**
+     * Submit a job; it starts on the next tick.
+     * Safe to call from any thread.
+     * 
+     * @param job The job
+     * @param <T> The job type
+     * @return The job, with its ID assigned
+     */
+    public <T extends Job> T submit(T job) {
+        job.setId(nextId.incrementAndGet());
+        submitted.add(job);
+        plugin.logDebug("Submitted job #" + job.getId() + " " + job.getName());
+        return job;
+    }
+    
+    /**
+     * Cancel a job by ID
+     * 
+     * @param id The job ID
+     * @return True if a running or queued job with that ID was found
+     */
+    public boolean cancel(int id) {
+        for (Job job : getJobs()) {
+            if (job.getId() == id) {
+                job.cancel();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Get the running and queued jobs in the order they are run
+     * 
+     * @return The jobs
+     */
+    public List<Job> getJobs() {
+        List<Job> result = new ArrayList<>(jobs);
+        result.addAll(submitted);
+        result.sort(ORDER);
+        return result;
+    }
+    
+    /**
+     * Get the time budget used in the last tick
+     * 
+     * @return The budget in milliseconds
+     */
+    public double getCurrentBudgetMillis() {
+        return currentBudgetNanos / 1_000_000.0;
+    }
+    
+    /**
+     * Get the tick time the budget was last based on
+     * 
+     * @return The measured milliseconds per tick
+     */
+    public double getMspt() {
+        return mspt;
+    }
+    
+    /**
+     * Run one scheduler tick
+     */
+    private void tick() {
+        long start = System.nanoTime();
+        currentBudgetNanos = computeBudget(start);
+        drainSubmitted();
+        
+        if (jobs.isEmpty()) {
+            return;
+        }
+        
+        // Run at least one unit per tick so jobs finish even while the server is lagging
+        long deadline = start + currentBudgetNanos;
+        boolean ranUnit = false;
+        for (Job job : jobs) {
+            boolean done = false;
+            while (!done && !job.isCancelled() && (!ranUnit || System.nanoTime() < deadline)) {
+                ranUnit = true;
+                
+                try {
+                    done = job.step();
+                } catch (RuntimeException e) {
+                    plugin.getLogger().warning("Job #" + job.getId() + " " + job.getName() + " failed: " + e.getMessage());
+                    job.cancel();
+                    break;
+                }
+                job.recordUnit();
+            }
+            
+            if (done || job.isCancelled()) {
+                finish(job);
+            }
+            
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Remove a finished or cancelled job
+     * 
+     * @param job The job
+     */
+    private void finish(Job job) {
+        jobs.remove(job);
+        job.markFinished();
+        
+        try {
+            job.onComplete();
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Job #" + job.getId() + " " + job.getName() + " failed to complete: " + e.getMessage());
+        }
+        
+        plugin.logDebug((job.isCancelled() ? "Cancelled" : "Finished") + " job #" + job.getId() + " " + job.getName()
+                + " after " + job.getCompletedUnits() + " units");
+    }
+    
+    /**
+     * Move newly submitted jobs into the run list, keeping it in priority order
+     */
+    private void drainSubmitted() {
+        Job job;
+        while ((job = submitted.poll()) != null) {
+            int index = 0;
+            while (index < jobs.size() && ORDER.compare(jobs.get(index), job) <= 0) {
+                index++;
+            }
+            jobs.add(index, job);
+        }
+    }
+    
+    /**
+     * Compute this tick's budget from the measured tick time
+     * 
+     * @param now The current time in nanoseconds
+     * @return The budget in nanoseconds
+     */
+    private long computeBudget(long now) {
+        if (lastTickNanos != 0) {
+            double intervalMillis = (now - lastTickNanos) / 1_000_000.0;
+            averageIntervalMillis += (intervalMillis - averageIntervalMillis) * SMOOTHING;
+        }
+        lastTickNanos = now;
+        
+        // Prefer the server's own tick time; otherwise infer lag from ticks arriving late
+        double load;
+        Double serverMspt = readServerMspt();
+        if (serverMspt != null) {
+            mspt = serverMspt;
+            load = (serverMspt - targetMspt) / (TICK_MILLIS - targetMspt);
+        } else {
+            mspt = averageIntervalMillis;
+            load = (averageIntervalMillis - TICK_MILLIS) / LAG_RANGE_MILLIS;
+        }
+        
+        load = Math.max(0.0, Math.min(1.0, load));
+        return maxBudgetNanos - (long) ((maxBudgetNanos - minBudgetNanos) * load);
+    }
+    
+    /**
+     * Read the server's average tick time
+     * 
+     * @return The average tick time in milliseconds, or null if unavailable
+     */
+    private Double readServerMspt() {
+        if (averageTickTime == null) {
+            return null;
+        }
+        
+        try {
+            return ((Number) averageTickTime.invoke(plugin.getServer())).doubleValue();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not supported on this server (for example on Folia), fall back to tick intervals
+            averageTickTime = null;
+            return null;
+        }
+    }
+}
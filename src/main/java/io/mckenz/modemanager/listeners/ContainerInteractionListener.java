@@ -0,0 +1,99 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.services.ModePermission;
+import io.mckenz.modemanager.util.ContainerMaterials;
+import org.bukkit.GameMode;
+import org.bukkit.block.Block;
+import org.bukkit.entity.ItemFrame;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+/**
+ * Listener for preventing container interaction in creative mode.
+ * Only registered while protection.prevent-creative-container-interaction is enabled.
+ */
+public class ContainerInteractionListener implements Listener {
+    
+    private final ModeManager plugin;
+    
+    /**
+     * Constructor for ContainerInteractionListener
+     * 
+     * @param plugin The plugin instance
+     */
+    public ContainerInteractionListener(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Handle player interact entity events
+     * This blocks creative players from placing/removing items in item frames
+     * 
+     * @param event The player interact entity event
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
+        Player player = event.getPlayer();
+        
+        // Skip if the player is not in creative mode
+        if (player.getGameMode() != GameMode.CREATIVE) {
+            return;
+        }
+        
+        // Check if the entity is an item frame
+        if (!(event.getRightClicked() instanceof ItemFrame)) {
+            return;
+        }
+        
+        // Skip if the player has bypass permission
+        if (plugin.getPermissionCache().has(player, ModePermission.BYPASS_CONTAINER_INTERACTION)) {
+            return;
+        }
+        
+        // Block interaction with item frames
+        event.setCancelled(true);
+        plugin.getMessageUtil().sendDenialMessage(player, "creative-container-blocked");
+        plugin.logDebug("Prevented " + player.getName() + " from interacting with item frame in creative mode");
+    }
+    
+    /**
+     * Handle player interact events
+     * This blocks creative players from opening containers
+     * 
+     * @param event The player interact event
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        Player player = event.getPlayer();
+        
+        // Only handle right-click actions on blocks
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
+            return;
+        }
+        
+        // Skip if the player is not in creative mode
+        if (player.getGameMode() != GameMode.CREATIVE) {
+            return;
+        }
+        
+        Block block = event.getClickedBlock();
+        if (block == null || !ContainerMaterials.isContainer(block.getType())) {
+            return;
+        }
+        
+        // Skip if the player has bypass permission
+        if (plugin.getPermissionCache().has(player, ModePermission.BYPASS_CONTAINER_INTERACTION)) {
+            return;
+        }
+        
+        event.setCancelled(true);
+        plugin.getMessageUtil().sendDenialMessage(player, "creative-container-blocked");
+        plugin.logDebug("Prevented " + player.getName() + " from interacting with container in creative mode: " + block.getType().name());
+    }
+}
@@ -0,0 +1,51 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.services.ModePermission;
+import io.mckenz.modemanager.util.ContainerMaterials;
+import org.bukkit.GameMode;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+
+/**
+ * Listener for preventing container placement in creative mode.
+ * Only registered while protection.prevent-creative-container-blocks is enabled.
+ */
+public class ContainerPlacementListener implements Listener {
+    
+    private final ModeManager plugin;
+    
+    /**
+     * Constructor for ContainerPlacementListener
+     * 
+     * @param plugin The plugin instance
+     */
+    public ContainerPlacementListener(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Handle block place events
+     * 
+     * @param event The block place event
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        Player player = event.getPlayer();
+        Block block = event.getBlock();
+        
+        // Prevent placing containers in creative mode
+        if (player.getGameMode() == GameMode.CREATIVE &&
+            ContainerMaterials.isContainer(block.getType()) &&
+            !plugin.getPermissionCache().has(player, ModePermission.BYPASS_CONTAINER_PLACEMENT)) {
+            
+            event.setCancelled(true);
+            plugin.getMessageUtil().sendDenialMessage(player, "creative-container-placement-blocked");
+            plugin.logDebug("Prevented " + player.getName() + " from placing container block in creative mode: " + block.getType().name());
+        }
+    }
+}
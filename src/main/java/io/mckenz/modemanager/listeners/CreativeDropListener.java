@@ -0,0 +1,44 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerDropItemEvent;
+
+/**
+ * Listener for preventing item drops in creative mode.
+ * Only registered while protection.prevent-creative-drops is enabled.
+ */
+public class CreativeDropListener implements Listener {
+    
+    private final ModeManager plugin;
+    
+    /**
+     * Constructor for CreativeDropListener
+     * 
+     * @param plugin The plugin instance
+     */
+    public CreativeDropListener(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Handle player drop item events
+     * 
+     * @param event The player drop item event
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerDropItem(PlayerDropItemEvent event) {
+        Player player = event.getPlayer();
+        
+        // Prevent dropping items in creative mode
+        if (player.getGameMode() == GameMode.CREATIVE) {
+            event.setCancelled(true);
+            plugin.getMessageUtil().sendDenialMessage(player, "creative-drop-blocked");
+            plugin.logDebug("Prevented " + player.getName() + " from dropping items in creative mode");
+        }
+    }
+}
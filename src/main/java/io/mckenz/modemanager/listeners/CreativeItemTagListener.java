@@ -0,0 +1,130 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.services.CreativeItemMarker;
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCreativeEvent;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Listener for marking items taken from the creative inventory and keeping them out of other modes.
+ * Only registered while protection.creative-item-tagging.enabled is set.
+ */
+public class CreativeItemTagListener implements Listener {
+    
+    private final ModeManager plugin;
+    
+    /**
+     * Constructor for CreativeItemTagListener
+     * 
+     * @param plugin The plugin instance
+     */
+    public CreativeItemTagListener(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Mark items a player takes from the creative inventory
+     * 
+     * @param event The inventory creative event
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onInventoryCreative(InventoryCreativeEvent event) {
+        ItemStack item = event.getCursor();
+        
+        if (plugin.getCreativeItemMarker().tag(item)) {
+            event.setCursor(item);
+        }
+    }
+    
+    /**
+     * Handle marked items picked up outside creative mode
+     * 
+     * @param event The entity pickup item event
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntityPickupItem(EntityPickupItemEvent event) {
+        if (!(event.getEntity() instanceof Player)) {
+            return;
+        }
+        
+        Player player = (Player) event.getEntity();
+        if (player.getGameMode() == GameMode.CREATIVE) {
+            return;
+        }
+        
+        CreativeItemMarker marker = plugin.getCreativeItemMarker();
+        if (!marker.isTagged(event.getItem().getItemStack())) {
+            return;
+        }
+        
+        event.setCancelled(true);
+        
+        if (marker.getPickupAction() == CreativeItemMarker.Action.STRIP) {
+            event.getItem().remove();
+            marker.recordStripped();
+            plugin.logDebug("Removed a creative item picked up by " + player.getName());
+        } else {
+            marker.recordDenied();
+            plugin.getMessageUtil().sendDenialMessage(player, "creative-item-blocked");
+            plugin.logDebug("Prevented " + player.getName() + " from picking up a creative item");
+        }
+    }
+    
+    /**
+     * Handle marked items moved in an inventory outside creative mode
+     * 
+     * @param event The inventory click event
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) {
+            return;
+        }
+        
+        Player player = (Player) event.getWhoClicked();
+        if (player.getGameMode() == GameMode.CREATIVE) {
+            return;
+        }
+        
+        CreativeItemMarker marker = plugin.getCreativeItemMarker();
+        boolean currentTagged = marker.isTagged(event.getCurrentItem());
+        boolean cursorTagged = marker.isTagged(event.getCursor());
+        boolean hotbarTagged = event.getClick() == ClickType.NUMBER_KEY
+                && marker.isTagged(player.getInventory().getItem(event.getHotbarButton()));
+        
+        if (!currentTagged && !cursorTagged && !hotbarTagged) {
+            return;
+        }
+        
+        event.setCancelled(true);
+        
+        if (marker.getInventoryAction() == CreativeItemMarker.Action.STRIP) {
+            if (currentTagged) {
+                event.setCurrentItem(null);
+                marker.recordStripped();
+            }
+            if (cursorTagged) {
+                player.setItemOnCursor(null);
+                marker.recordStripped();
+            }
+            if (hotbarTagged) {
+                player.getInventory().setItem(event.getHotbarButton(), null);
+                marker.recordStripped();
+            }
+            plugin.getMessageUtil().sendDenialMessage(player, "creative-item-stripped");
+            plugin.logDebug("Removed creative items from " + player.getName() + "'s inventory");
+        } else {
+            marker.recordDenied();
+            plugin.getMessageUtil().sendDenialMessage(player, "creative-item-blocked");
+            plugin.logDebug("Prevented " + player.getName() + " from moving a creative item");
+        }
+    }
+}
@@ -1,28 +1,27 @@
 package io.mckenz.modemanager.listeners;
 
 import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.services.ModePermission;
+import io.mckenz.modemanager.util.Placeholder;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.player.PlayerBucketEmptyEvent;
 import org.bukkit.event.player.PlayerBucketFillEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
- * Listener for handling item restrictions in creative mode
+ * Listener for handling item restrictions in creative mode.
+ * Only registered while protection.restrict-creative-items.enabled is set.
  */
 public class ItemRestrictionListener implements Listener {
     
@@ -47,11 +46,6 @@ public class ItemRestrictionListener implements Listener {
     private Set<Material> loadRestrictedItems() {
         Set<Material> items = new HashSet<>();
         
-        // Skip if restrictions are disabled
-        if (!plugin.getConfig().getBoolean("protection.restrict-creative-items.enabled", true)) {
-            return items;
-        }
-        
         List<String> configItems = plugin.getConfig().getStringList("protection.restrict-creative-items.restricted-items");
         
         for (String itemName : configItems) {
@@ -96,18 +90,13 @@ public class ItemRestrictionListener implements Listener {
     public void onPlayerInteract(PlayerInteractEvent event) {
         Player player = event.getPlayer();
         
-        // Skip if restrictions are disabled
-        if (!plugin.getConfig().getBoolean("protection.restrict-creative-items.enabled", true)) {
-            return;
-        }
-        
         // Skip if player is not in creative mode
         if (player.getGameMode() != GameMode.CREATIVE) {
             return;
         }
         
         // Skip if player has bypass permission
-        if (player.hasPermission("modemanager.bypass.itemrestrictions")) {
+        if (plugin.getPermissionCache().has(player, ModePermission.BYPASS_ITEM_RESTRICTIONS)) {
             return;
         }
         
@@ -117,10 +106,10 @@ public class ItemRestrictionListener implements Listener {
             // Cancel the event for all restricted items
             event.setCancelled(true);
             
-            // Send message to player
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("item", formatItemName(item.getType().name()));
-            plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", placeholders);
+            // Send message to player unless it was sent moments ago
+            if (plugin.getMessageUtil().shouldSendDenial(player, "creative-item-restricted")) {
+                plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", Placeholder.ITEM, formatItemName(item.getType().name()));
+            }
             
             plugin.logDebug("Prevented " + player.getName() + " from using restricted item: " + item.getType().name());
         }
@@ -135,18 +124,13 @@ public class ItemRestrictionListener implements Listener {
     public void onBlockPlace(BlockPlaceEvent event) {
         Player player = event.getPlayer();
         
-        // Skip if restrictions are disabled
-        if (!plugin.getConfig().getBoolean("protection.restrict-creative-items.enabled", true)) {
-            return;
-        }
-        
         // Skip if player is not in creative mode
         if (player.getGameMode() != GameMode.CREATIVE) {
             return;
         }
         
         // Skip if player has bypass permission
-        if (player.hasPermission("modemanager.bypass.itemrestrictions")) {
+        if (plugin.getPermissionCache().has(player, ModePermission.BYPASS_ITEM_RESTRICTIONS)) {
             return;
         }
         
@@ -156,10 +140,10 @@ public class ItemRestrictionListener implements Listener {
             // Cancel the event for all restricted items
             event.setCancelled(true);
             
-            // Send message to player
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("item", formatItemName(item.getType().name()));
-            plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", placeholders);
+            // Send message to player unless it was sent moments ago
+            if (plugin.getMessageUtil().shouldSendDenial(player, "creative-item-restricted")) {
+                plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", Placeholder.ITEM, formatItemName(item.getType().name()));
+            }
             
             plugin.logDebug("Prevented " + player.getName() + " from placing restricted item: " + item.getType().name());
         }
@@ -174,18 +158,13 @@ public class ItemRestrictionListener implements Listener {
     public void onPlayerBucketEmpty(PlayerBucketEmptyEvent event) {
         Player player = event.getPlayer();
         
-        // Skip if restrictions are disabled
-        if (!plugin.getConfig().getBoolean("protection.restrict-creative-items.enabled", true)) {
-            return;
-        }
-        
         // Skip if player is not in creative mode
         if (player.getGameMode() != GameMode.CREATIVE) {
             return;
         }
         
         // Skip if player has bypass permission
-        if (player.hasPermission("modemanager.bypass.itemrestrictions")) {
+        if (plugin.getPermissionCache().has(player, ModePermission.BYPASS_ITEM_RESTRICTIONS)) {
             return;
         }
         
@@ -195,10 +174,10 @@ public class ItemRestrictionListener implements Listener {
             // Cancel the event
             event.setCancelled(true);
             
-            // Send message to player
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("item", formatItemName(bucketType.name()));
-            plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", placeholders);
+            // Send message to player unless it was sent moments ago
+            if (plugin.getMessageUtil().shouldSendDenial(player, "creative-item-restricted")) {
+                plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", Placeholder.ITEM, formatItemName(bucketType.name()));
+            }
             
             plugin.logDebug("Prevented " + player.getName() + " from emptying restricted bucket: " + bucketType.name());
         }
@@ -213,18 +192,13 @@ public class ItemRestrictionListener implements Listener {
     public void onPlayerBucketFill(PlayerBucketFillEvent event) {
         Player player = event.getPlayer();
         
-        // Skip if restrictions are disabled
-        if (!plugin.getConfig().getBoolean("protection.restrict-creative-items.enabled", true)) {
-            return;
-        }
-        
         // Skip if player is not in creative mode
         if (player.getGameMode() != GameMode.CREATIVE) {
             return;
         }
         
         // Skip if player has bypass permission
-        if (player.hasPermission("modemanager.bypass.itemrestrictions")) {
+        if (plugin.getPermissionCache().has(player, ModePermission.BYPASS_ITEM_RESTRICTIONS)) {
             return;
         }
         
@@ -234,10 +208,10 @@ public class ItemRestrictionListener implements Listener {
             // Cancel the event
             event.setCancelled(true);
             
-            // Send message to player
-            Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("item", formatItemName(bucketType.name()));
-            plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", placeholders);
+            // Send message to player unless it was sent moments ago
+            if (plugin.getMessageUtil().shouldSendDenial(player, "creative-item-restricted")) {
+                plugin.getMessageUtil().sendMessage(player, "creative-item-restricted", Placeholder.ITEM, formatItemName(bucketType.name()));
+            }
             
             plugin.logDebug("Prevented " + player.getName() + " from filling bucket: " + bucketType.name());
         }
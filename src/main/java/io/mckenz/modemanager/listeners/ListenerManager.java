@@ -0,0 +1,63 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registers and unregisters protection listeners as their config toggles change,
+ * so that disabled protections receive no event dispatches at all
+ */
+public class ListenerManager {
+    private final ModeManager plugin;
+    private final Map<ProtectionFeature, Listener> activeListeners = new EnumMap<>(ProtectionFeature.class);
+    
+    /**
+     * Constructor for ListenerManager
+     * 
+     * @param plugin The plugin instance
+     */
+    public ListenerManager(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Bring the registered listeners in line with the current config.
+     * Newly enabled features are registered, disabled ones are unregistered,
+     * and listeners that stay registered reload their config-derived state.
+     */
+    public void refresh() {
+        for (ProtectionFeature feature : ProtectionFeature.values()) {
+            boolean enabled = feature.isEnabled(plugin);
+            Listener listener = activeListeners.get(feature);
+            
+            if (enabled && listener == null) {
+                listener = feature.createListener(plugin);
+                plugin.getServer().getPluginManager().registerEvents(listener, plugin);
+                activeListeners.put(feature, listener);
+                plugin.logDebug("Registered listener for " + feature.name());
+            } else if (!enabled && listener != null) {
+                HandlerList.unregisterAll(listener);
+                activeListeners.remove(feature);
+                plugin.logDebug("Unregistered listener for " + feature.name());
+            } else if (listener instanceof ItemRestrictionListener) {
+                ((ItemRestrictionListener) listener).reloadRestrictedItems();
+            } else if (listener instanceof MobSpawnListener) {
+                ((MobSpawnListener) listener).reloadRestrictedEntities();
+            }
+        }
+    }
+    
+    /**
+     * Unregister all protection listeners
+     */
+    public void unregisterAll() {
+        for (Listener listener : activeListeners.values()) {
+            HandlerList.unregisterAll(listener);
+        }
+        activeListeners.clear();
+    }
+}
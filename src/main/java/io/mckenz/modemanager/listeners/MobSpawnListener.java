@@ -0,0 +1,183 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.services.ModePermission;
+import io.mckenz.modemanager.util.Placeholder;
+import org.bukkit.GameMode;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.projectiles.ProjectileSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listener for preventing mob spawning in creative mode.
+ * Only registered while protection.prevent-creative-mob-spawning is enabled.
+ */
+public class MobSpawnListener implements Listener {
+    
+    private final ModeManager plugin;
+    private Set<EntityType> restrictedEntities;
+    private boolean restrictAllEntities;
+    
+    /**
+     * Constructor for MobSpawnListener
+     * 
+     * @param plugin The plugin instance
+     */
+    public MobSpawnListener(ModeManager plugin) {
+        this.plugin = plugin;
+        loadRestrictedEntities();
+    }
+    
+    /**
+     * Load restricted entity types from config
+     */
+    public void loadRestrictedEntities() {
+        restrictedEntities = new HashSet<>();
+        
+        // Check if we should restrict all entity types
+        Object configValue = plugin.getConfig().get("protection.restricted-entity-types");
+        
+        if (configValue instanceof String && "ALL".equalsIgnoreCase((String) configValue)) {
+            // Restrict all entity types
+            restrictAllEntities = true;
+            plugin.logDebug("Configured to restrict ALL entity types in creative mode");
+            return;
+        }
+        
+        // Otherwise, load specific entity types from config
+        restrictAllEntities = false;
+        List<String> entityTypeNames;
+        
+        if (configValue instanceof List) {
+            entityTypeNames = plugin.getConfig().getStringList("protection.restricted-entity-types");
+        } else {
+            // If not properly configured, default to restricting all entity types
+            restrictAllEntities = true;
+            plugin.logDebug("Invalid restricted-entity-types configuration, defaulting to ALL");
+            return;
+        }
+        
+        for (String entityTypeName : entityTypeNames) {
+            try {
+                EntityType entityType = EntityType.valueOf(entityTypeName.toUpperCase());
+                restrictedEntities.add(entityType);
+                plugin.logDebug("Added restricted entity type: " + entityType.name());
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid entity type in restricted-entity-types list: " + entityTypeName);
+            }
+        }
+        
+        plugin.logDebug("Loaded " + restrictedEntities.size() + " restricted entity types");
+    }
+    
+    /**
+     * Check if an entity type is restricted
+     * 
+     * @param entityType The entity type to check
+     * @return True if the entity type is restricted, false otherwise
+     */
+    private boolean isEntityTypeRestricted(EntityType entityType) {
+        return restrictAllEntities || restrictedEntities.contains(entityType);
+    }
+    
+    /**
+     * Handle entity spawn events
+     * This is triggered when an entity is spawned in the world
+     * 
+     * @param event The entity spawn event
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntitySpawn(EntitySpawnEvent event) {
+        Entity entity = event.getEntity();
+        
+        // Skip if entity is not restricted
+        if (!isEntityTypeRestricted(entity.getType())) {
+            return;
+        }
+        
+        // Check if the entity was spawned by a projectile (like a spawn egg)
+        if (entity instanceof ProjectileSource) {
+            ProjectileSource source = (ProjectileSource) entity;
+            if (source instanceof Player) {
+                Player player = (Player) source;
+                if (player.getGameMode() == GameMode.CREATIVE && 
+                    !plugin.getPermissionCache().has(player, ModePermission.BYPASS_MOB_SPAWNING)) {
+                    
+                    event.setCancelled(true);
+                    plugin.getMessageUtil().sendDenialMessage(player, "creative-mob-spawning-blocked");
+                    plugin.logDebug("Prevented " + player.getName() + " from spawning mob in creative mode: " + 
+                                   entity.getType().name());
+                    return;
+                }
+            }
+        }
+        
+        // Check nearby players (within 5 blocks) who might have spawned this entity
+        entity.getWorld().getNearbyEntities(entity.getLocation(), 5, 5, 5).forEach(nearby -> {
+            if (nearby instanceof Player) {
+                Player player = (Player) nearby;
+                if (player.getGameMode() == GameMode.CREATIVE && 
+                    !plugin.getPermissionCache().has(player, ModePermission.BYPASS_MOB_SPAWNING)) {
+                    
+                    event.setCancelled(true);
+                    
+                    // Check if player is holding a spawn egg
+                    if (player.getInventory().getItemInMainHand().getType().name().endsWith("_SPAWN_EGG")) {
+                        if (plugin.getMessageUtil().shouldSendDenial(player, "creative-spawn-egg-blocked")) {
+                            String eggType = formatEntityName(player.getInventory().getItemInMainHand().getType().name());
+                            plugin.getMessageUtil().sendMessage(player, "creative-spawn-egg-blocked", Placeholder.ENTITY, eggType);
+                        }
+                    } else {
+                        plugin.getMessageUtil().sendDenialMessage(player, "creative-mob-spawning-blocked");
+                    }
+                    
+                    plugin.logDebug("Prevented " + player.getName() + " from spawning mob in creative mode: " + 
+                                   entity.getType().name());
+                    return;
+                }
+            }
+        });
+    }
+    
+    /**
+     * Format entity name for display
+     * 
+     * @param entityName The entity name
+     * @return Formatted entity name
+     */
+    private String formatEntityName(String entityName) {
+        // Remove _SPAWN_EGG suffix
+        if (entityName.endsWith("_SPAWN_EGG")) {
+            entityName = entityName.substring(0, entityName.length() - 11);
+        }
+        
+        String[] parts = entityName.toLowerCase().split("_");
+        StringBuilder result = new StringBuilder();
+        
+        for (String part : parts) {
+            if (part.length() > 0) {
+                result.append(Character.toUpperCase(part.charAt(0)))
+                      .append(part.substring(1))
+                      .append(" ");
+            }
+        }
+        
+        return result.toString().trim();
+    }
+    
+    /**
+     * Reload restricted entity types from config
+     */
+    public void reloadRestrictedEntities() {
+        loadRestrictedEntities();
+    }
+} 
\ No newline at end of file
@@ -1,42 +1,35 @@
 package io.mckenz.modemanager.listeners;
 
 import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.data.InventoryProfile;
 import io.mckenz.modemanager.data.PlayerModeData;
+import io.mckenz.modemanager.services.ModePermission;
+import io.mckenz.modemanager.util.Placeholder;
 import org.bukkit.GameMode;
-import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.block.BlockState;
-import org.bukkit.block.Container;
-import org.bukkit.entity.ItemFrame;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
 import org.bukkit.event.entity.PlayerDeathEvent;
-import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerGameModeChangeEvent;
-import org.bukkit.event.player.PlayerInteractEntityEvent;
-import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
-import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Listener for player events
+ * Listener for core player events that are always registered
  */
 public class PlayerListener implements Listener {
     
     private final ModeManager plugin;
-    private final Map<UUID, GameMode> deathModes = new HashMap<>();
-    private final Set<Material> containerMaterials;
+    private final Map<UUID, GameMode> deathModes = new ConcurrentHashMap<>();
     
     /**
      * Constructor for PlayerListener
@@ -45,65 +38,31 @@ public class PlayerListener implements Listener {
      */
     public PlayerListener(ModeManager plugin) {
         this.plugin = plugin;
-        this.containerMaterials = initContainerMaterials();
     }
     
     /**
-     * Initialize the set of container materials
+     * Load the player's data before they join, off the main thread
      * 
-     * @return Set of container materials
+     * @param event The async player pre-login event
      */
-    private Set<Material> initContainerMaterials() {
-        Set<Material> containers = new HashSet<>();
-        
-        // Add all chest types
-        containers.add(Material.CHEST);
-        containers.add(Material.TRAPPED_CHEST);
-        containers.add(Material.ENDER_CHEST);
-        containers.add(Material.BARREL);
-        
-        // Add all shulker box types
-        for (Material material : Material.values()) {
-            if (material.name().endsWith("SHULKER_BOX")) {
-                containers.add(material);
-            }
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            plugin.getPlayerDataManager().preloadPlayerData(event.getUniqueId());
         }
-        
-        // Add furnace types
-        containers.add(Material.FURNACE);
-        containers.add(Material.BLAST_FURNACE);
-        containers.add(Material.SMOKER);
-        
-        // Add other container types
-        containers.add(Material.DISPENSER);
-        containers.add(Material.DROPPER);
-        containers.add(Material.HOPPER);
-        containers.add(Material.BREWING_STAND);
-        
-        // Add additional container types
-        containers.add(Material.LECTERN);
-        containers.add(Material.COMPOSTER);
-        containers.add(Material.CAULDRON);
-        containers.add(Material.LAVA_CAULDRON);
-        containers.add(Material.WATER_CAULDRON);
-        containers.add(Material.POWDER_SNOW_CAULDRON);
-        containers.add(Material.BEEHIVE);
-        containers.add(Material.BEE_NEST);
-        containers.add(Material.CAMPFIRE);
-        containers.add(Material.SOUL_CAMPFIRE);
-        containers.add(Material.JUKEBOX);
-        
-        return containers;
     }
     
     /**
-     * Check if a material is a container
+     * Drop preloaded data of a player who was refused after the pre-login
      * 
-     * @param material The material to check
-     * @return True if the material is a container, false otherwise
+     * @param event The player login event
      */
-    private boolean isContainer(Material material) {
-        return containerMaterials.contains(material);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        UUID playerUuid = event.getPlayer().getUniqueId();
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED && plugin.getServer().getPlayer(playerUuid) == null) {
+            plugin.getPlayerDataManager().removePlayerData(playerUuid);
+        }
     }
     
     /**
@@ -115,7 +74,10 @@ public class PlayerListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
-        // Load player data
+        // Compute the player's cached permissions
+        plugin.getPermissionCache().refresh(player);
+        
+        // Player data was preloaded before the join and is read from memory
         PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
         
         // Set the player's game mode to match their stored mode
@@ -123,6 +85,14 @@ public class PlayerListener implements Listener {
             player.setGameMode(data.getCurrentMode());
             plugin.logDebug("Set " + player.getName() + "'s game mode to " + data.getCurrentMode() + " on join");
         }
+        
+        plugin.getModeTable().put(player.getUniqueId(), data.getCurrentMode());
+        
+        // Reapply an active temporary creative grant, or revert one that expired while offline
+        plugin.getGrantService().handleJoin(player);
+        
+        // Load the inventory group of the world the player joined in if it is not the one they left in
+        plugin.getWorldGroupService().checkGroup(player);
     }
     
     /**
@@ -134,18 +104,38 @@ public class PlayerListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         
-        // Save player data
-        plugin.getPlayerDataManager().savePlayerData(player.getUniqueId());
+        // Save player data without waiting for the save limit, so a quick rejoin reads it back at once
+        plugin.getPlayerDataManager().savePlayerDataAsync(player.getUniqueId(), false);
         
         // Remove player data from memory
         plugin.getPlayerDataManager().removePlayerData(player.getUniqueId());
+        plugin.getModeTable().remove(player.getUniqueId());
         
         // Remove from death modes map if present
         deathModes.remove(player.getUniqueId());
+        plugin.getWorldGroupService().clearPlayer(player.getUniqueId());
+        plugin.getSnapshotLog().clearPlayer(player.getUniqueId());
+        
+        // Drop the player's cached permissions and message throttle state
+        plugin.getPermissionCache().invalidate(player.getUniqueId());
+        plugin.getMessageUtil().clearPlayer(player.getUniqueId());
         
         plugin.logDebug("Saved and removed " + player.getName() + "'s data on quit");
     }
     
+    /**
+     * Handle player changed world events
+     * Permission plugins commonly apply per-world permissions, so the cache is recomputed,
+     * and entering a world of another world group swaps in that group's inventories
+     * 
+     * @param event The player changed world event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        plugin.getPermissionCache().refresh(event.getPlayer());
+        plugin.getWorldGroupService().checkGroup(event.getPlayer());
+    }
+    
     /**
      * Handle player game mode change events
      * 
@@ -157,17 +147,12 @@ public class PlayerListener implements Listener {
         GameMode newMode = event.getNewGameMode();
         
         // Skip if the player doesn't have permission to use the plugin
-        if (!player.hasPermission("modemanager.use")) {
-            return;
-        }
-        
-        // Skip if the new mode is not survival or creative
-        if (newMode != GameMode.SURVIVAL && newMode != GameMode.CREATIVE) {
+        if (!plugin.getPermissionCache().has(player, ModePermission.USE)) {
             return;
         }
         
         // Skip if the player doesn't have permission to use creative mode
-        if (newMode == GameMode.CREATIVE && !player.hasPermission("modemanager.creative")) {
+        if (newMode == GameMode.CREATIVE && !plugin.getPermissionCache().has(player, ModePermission.CREATIVE)) {
             event.setCancelled(true);
             plugin.getMessageUtil().sendMessage(player, "no-permission");
             return;
@@ -182,25 +167,6 @@ public class PlayerListener implements Listener {
         }
     }
     
-    /**
-     * Handle player drop item events
-     * 
-     * @param event The player drop item event
-     */
-    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
-    public void onPlayerDropItem(PlayerDropItemEvent event) {
-        Player player = event.getPlayer();
-        
-        // Prevent dropping items in creative mode if configured
-        if (player.getGameMode() == GameMode.CREATIVE && 
-            plugin.getConfig().getBoolean("protection.prevent-creative-drops", true)) {
-            
-            event.setCancelled(true);
-            plugin.getMessageUtil().sendMessage(player, "creative-drop-blocked");
-            plugin.logDebug("Prevented " + player.getName() + " from dropping items in creative mode");
-        }
-    }
-    
     /**
      * Handle player death events
      * 
@@ -224,18 +190,23 @@ public class PlayerListener implements Listener {
         // If we're preserving creative inventory on death, save the current inventory
         if (plugin.getConfig().getBoolean("protection.preserve-creative-inventory-on-death", true)) {
             if (currentMode == GameMode.CREATIVE) {
-                // Save creative inventory
-                data.setCreativeInventory(player.getInventory().getContents());
-                
-                // Save armor if enabled
-                if (plugin.getConfig().getBoolean("inventories.save-armor-contents", true)) {
-                    data.setCreativeArmorContents(player.getInventory().getArmorContents());
-                }
-                
-                // Save offhand if enabled
-                if (plugin.getConfig().getBoolean("inventories.save-offhand-items", true)) {
-                    data.setCreativeOffHandItem(player.getInventory().getItemInOffHand());
-                }
+                plugin.getPlayerDataManager().mutate(player.getUniqueId(), () -> {
+                    InventoryProfile profile = data.getOrCreateProfile(GameMode.CREATIVE);
+                    
+                    // Save creative inventory
+                    profile.setInventory(InventoryProfile.copyOf(player.getInventory().getContents()));
+                    
+                    // Save armor if enabled
+                    if (plugin.getConfig().getBoolean("inventories.save-armor-contents", true)) {
+                        profile.setArmorContents(InventoryProfile.copyOf(player.getInventory().getArmorContents()));
+                    }
+                    
+                    // Save offhand if enabled
+                    if (plugin.getConfig().getBoolean("inventories.save-offhand-items", true)) {
+                        profile.setOffHandItem(InventoryProfile.copyOf(player.getInventory().getItemInOffHand()));
+                    }
+                    return null;
+                });
                 
                 plugin.logDebug("Saved " + player.getName() + "'s creative inventory on death");
             } else if (currentMode == GameMode.SURVIVAL) {
@@ -257,132 +228,47 @@ public class PlayerListener implements Listener {
         UUID playerId = player.getUniqueId();
         
         // Skip if we don't have a record of the player's death mode
-        if (!deathModes.containsKey(playerId)) {
+        GameMode deathMode = deathModes.remove(playerId); // Clean up
+        if (deathMode == null) {
             return;
         }
         
-        GameMode deathMode = deathModes.get(playerId);
-        deathModes.remove(playerId); // Clean up
-        
         // If the player died in creative mode and we're preserving inventory
         if (deathMode == GameMode.CREATIVE && 
             plugin.getConfig().getBoolean("protection.preserve-creative-inventory-on-death", true)) {
             
             // Schedule a task to restore inventory after respawn
-            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
+            plugin.getScheduler().runForEntity(player, () -> {
+                InventoryProfile profile = plugin.getPlayerDataManager().getPlayerData(player).getProfile(GameMode.CREATIVE);
                 
                 // Make sure the player is still in creative mode
-                if (player.getGameMode() == GameMode.CREATIVE) {
+                if (player.getGameMode() == GameMode.CREATIVE && profile != null) {
                     // Restore creative inventory
-                    if (data.getCreativeInventory() != null) {
-                        player.getInventory().setContents(data.getCreativeInventory());
+                    if (profile.getInventory() != null) {
+                        player.getInventory().setContents(profile.getInventory());
                     }
                     
                     // Restore armor if enabled
                     if (plugin.getConfig().getBoolean("inventories.save-armor-contents", true) && 
-                        data.getCreativeArmorContents() != null) {
-                        player.getInventory().setArmorContents(data.getCreativeArmorContents());
+                        profile.getArmorContents() != null) {
+                        player.getInventory().setArmorContents(profile.getArmorContents());
                     }
                     
                     // Restore offhand if enabled
                     if (plugin.getConfig().getBoolean("inventories.save-offhand-items", true) && 
-                        data.getCreativeOffHandItem() != null) {
-                        player.getInventory().setItemInOffHand(data.getCreativeOffHandItem());
+                        profile.getOffHandItem() != null) {
+                        player.getInventory().setItemInOffHand(profile.getOffHandItem());
                     }
                     
                     // Update the player's inventory
                     player.updateInventory();
                     
                     // Send message to player
-                    Map<String, String> placeholders = new HashMap<>();
-                    placeholders.put("mode", "creative");
-                    plugin.getMessageUtil().sendMessage(player, "inventory-restored", placeholders);
+                    plugin.getMessageUtil().sendMessage(player, "inventory-restored", Placeholder.MODE, "creative");
                     
                     plugin.logDebug("Restored " + player.getName() + "'s creative inventory after respawn");
                 }
-            }, 1L); // Run 1 tick after respawn
+            }, null, 1L); // Run 1 tick after respawn
         }
     }
-    
-    /**
-     * Handle player interact entity events
-     * This blocks creative players from placing/removing items in item frames
-     * 
-     * @param event The player interact entity event
-     */
-    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
-    public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
-        Player player = event.getPlayer();
-        
-        // Skip if the player is not in creative mode
-        if (player.getGameMode() != GameMode.CREATIVE) {
-            return;
-        }
-        
-        // Skip if the player has bypass permission
-        if (player.hasPermission("modemanager.bypass.containerinteraction")) {
-            return;
-        }
-        
-        // Check if the entity is an item frame
-        if (!(event.getRightClicked() instanceof ItemFrame)) {
-            return;
-        }
-        
-        // Check if the config option is enabled
-        if (!plugin.getConfig().getBoolean("protection.prevent-creative-container-interaction", true)) {
-            return;
-        }
-        
-        // Block interaction with item frames
-        event.setCancelled(true);
-        plugin.getMessageUtil().sendMessage(player, "creative-container-blocked");
-        plugin.logDebug("Prevented " + player.getName() + " from interacting with item frame in creative mode");
-    }
-    
-    /**
-     * Handle player interact events
-     * This blocks creative players from opening containers
-     * 
-     * @param event The player interact event
-     */
-    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
-    public void onPlayerInteract(PlayerInteractEvent event) {
-        Player player = event.getPlayer();
-        
-        // Only handle right-click actions on blocks
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-        
-        // Skip if the player is not in creative mode
-        if (player.getGameMode() != GameMode.CREATIVE) {
-            return;
-        }
-        
-        // Skip if the player has bypass permission
-        if (player.hasPermission("modemanager.bypass.containerinteraction")) {
-            return;
-        }
-        
-        Block block = event.getClickedBlock();
-        if (block == null) {
-            return;
-        }
-        
-        // Check if the config option is enabled
-        if (!plugin.getConfig().getBoolean("protection.prevent-creative-container-interaction", true)) {
-            return;
-        }
-        
-        // Check if the block is a container
-        if (isContainer(block.getType())) {
-            event.setCancelled(true);
-            plugin.getMessageUtil().sendMessage(player, "creative-container-blocked");
-            plugin.logDebug("Prevented " + player.getName() + " from interacting with container in creative mode: " + block.getType().name());
-        }
-    }
-    
-
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import org.bukkit.event.Listener;
+
+import java.util.function.Function;
+
+/**
+ * Protection features whose listeners are only registered while enabled in the config
+ */
+public enum ProtectionFeature {
+    CREATIVE_BLOCK_TRACKING("protection.track-creative-blocks", CreativeBlockListener::new),
+    CREATIVE_ITEM_FRAME_TRACKING("protection.track-creative-item-frames", CreativeItemFrameListener::new),
+    CREATIVE_DROPS("protection.prevent-creative-drops", CreativeDropListener::new),
+    CONTAINER_PLACEMENT("protection.prevent-creative-container-blocks", ContainerPlacementListener::new),
+    CONTAINER_INTERACTION("protection.prevent-creative-container-interaction", ContainerInteractionListener::new),
+    MOB_SPAWNING("protection.prevent-creative-mob-spawning", MobSpawnListener::new),
+    ITEM_RESTRICTIONS("protection.restrict-creative-items.enabled", ItemRestrictionListener::new),
+    CREATIVE_ITEM_TAGGING("protection.creative-item-tagging.enabled", CreativeItemTagListener::new);
+    
+    private final String configPath;
+    private final Function<ModeManager, Listener> factory;
+    
+    ProtectionFeature(String configPath, Function<ModeManager, Listener> factory) {
+        this.configPath = configPath;
+        this.factory = factory;
+    }
+    
+    /**
+     * Check if this feature is enabled in the current config
+     * 
+     * @param plugin The plugin instance
+     * @return True if the feature is enabled, false otherwise
+     */
+    public boolean isEnabled(ModeManager plugin) {
+        return plugin.getConfig().getBoolean(configPath, true);
+    }
+    
+    /**
+     * Create a new listener for this feature
+     * 
+     * @param plugin The plugin instance
+     * @return The new listener
+     */
+    Listener createListener(ModeManager plugin) {
+        return factory.apply(plugin);
+    }
+}
@@ -0,0 +1,39 @@
+package io.mckenz.modemanager.listeners;
+
+import io.mckenz.modemanager.ModeManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldSaveEvent;
+
+/**
+ * Listener for saving creative tracking data alongside world saves.
+ * Every loaded world fires its own save event, so the saves are coalesced.
+ */
+public class WorldSaveListener implements Listener {
+    
+    private final ModeManager plugin;
+    
+    /**
+     * Constructor for WorldSaveListener
+     * 
+     * @param plugin The plugin instance
+     */
+    public WorldSaveListener(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Handle world save events
+     * 
+     * @param event The world save event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldSave(WorldSaveEvent event) {
+        if (!plugin.isPluginEnabled()) {
+            return;
+        }
+        
+        plugin.saveTrackingDataAsync();
+    }
+}
@@ -0,0 +1,152 @@
+package io.mckenz.modemanager.services;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.jobs.Job;
+import io.mckenz.modemanager.jobs.JobPriority;
+import io.mckenz.modemanager.util.MessageArgs;
+import io.mckenz.modemanager.util.Placeholder;
+import io.mckenz.modemanager.util.PlayerSelector;
+import org.bukkit.GameMode;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Job forcing every online player matched by a selector into a mode, one player per unit of work.
+ * Switches skip the per-player save; changed players are saved in batches of
+ * performance.bulk-force.save-batch-size so the I/O executor gets them together.
+ * Progress is reported to the sender every tenth of the way, and the job can be cancelled
+ * with /mode admin jobs cancel.
+ */
+public class BulkForceJob extends Job {
+    private static final int PROGRESS_STEPS = 10;
+    
+    private final ModeManager plugin;
+    private final CommandSender sender;
+    private final PlayerSelector selector;
+    private final GameMode mode;
+    private final String reason;
+    private final String adminName;
+    private final Queue<UUID> queue;
+    private final Queue<UUID> pendingSaves = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger forced = new AtomicInteger();
+    private final int saveBatchSize;
+    private final int total;
+    private int checked;
+    private int reportedStep;
+    
+    /**
+     * Constructor for BulkForceJob
+     * 
+     * @param plugin The plugin instance
+     * @param sender The sender to report progress to
+     * @param selector The players to force
+     * @param mode The mode to force them into
+     * @param reason The reason for the change
+     * @param adminName The name of the admin who started the job
+     * @param players The online players to check against the selector
+     */
+    public BulkForceJob(ModeManager plugin, CommandSender sender, PlayerSelector selector, GameMode mode,
+                        String reason, String adminName, Collection<UUID> players) {
+        super("Force " + selector + " to " + mode, JobPriority.HIGH, players.size());
+        this.plugin = plugin;
+        this.sender = sender;
+        this.selector = selector;
+        this.mode = mode;
+        this.reason = reason;
+        this.adminName = adminName;
+        this.queue = new ArrayDeque<>(players);
+        this.total = players.size();
+        this.saveBatchSize = Math.max(1, plugin.getConfig().getInt("performance.bulk-force.save-batch-size", 20));
+    }
+    
+    @Override
+    protected boolean step() {
+        UUID playerUuid = queue.poll();
+        Player player = playerUuid != null ? plugin.getServer().getPlayer(playerUuid) : null;
+        
+        if (player != null) {
+            // On Folia the player belongs to a region thread, so the switch runs there
+            if (plugin.getScheduler().isOwnedByCurrentThread(player)) {
+                force(player);
+            } else {
+                plugin.getScheduler().runForEntity(player, () -> force(player), null, 0L);
+            }
+        }
+        
+        checked++;
+        if (pendingSaves.size() >= saveBatchSize) {
+            flushSaves();
+        }
+        reportProgress();
+        return queue.isEmpty();
+    }
+    
+    @Override
+    protected void onComplete() {
+        flushSaves();
+        
+        MessageArgs doneArgs = MessageArgs.of(Placeholder.ID, String.valueOf(getId()))
+                .with(Placeholder.COUNT, String.valueOf(forced.get()))
+                .with(Placeholder.MODE, mode.name());
+        plugin.getMessageUtil().sendMessage(sender, isCancelled() ? "admin-force-bulk-cancelled" : "admin-force-bulk-complete", doneArgs);
+    }
+    
+    /**
+     * Force one player into the mode if they match the selector
+     * 
+     * @param player The player
+     */
+    private void force(Player player) {
+        if (isCancelled() || !player.isOnline() || !selector.matches(player)) {
+            return;
+        }
+        
+        if (plugin.getPlayerDataManager().getPlayerData(player).getCurrentMode() == mode) {
+            return;
+        }
+        
+        if (plugin.getModeService().forcePlayerMode(player, mode, reason, adminName, false)) {
+            forced.incrementAndGet();
+            
+            // Switches finishing after the job are saved right away
+            if (isFinished()) {
+                plugin.getPlayerDataManager().savePlayerDataAsync(player.getUniqueId());
+            } else {
+                pendingSaves.add(player.getUniqueId());
+            }
+        }
+    }
+    
+    /**
+     * Submit the saves of the players switched since the last batch
+     */
+    private void flushSaves() {
+        UUID playerUuid;
+        while ((playerUuid = pendingSaves.poll()) != null) {
+            plugin.getPlayerDataManager().savePlayerDataAsync(playerUuid);
+        }
+    }
+    
+    /**
+     * Tell the sender how far the job has got each time another tenth is done
+     */
+    private void reportProgress() {
+        int step = total > 0 ? checked * PROGRESS_STEPS / total : PROGRESS_STEPS;
+        if (step <= reportedStep || step >= PROGRESS_STEPS) {
+            return;
+        }
+        reportedStep = step;
+        
+        MessageArgs progressArgs = MessageArgs.of(Placeholder.ID, String.valueOf(getId()))
+                .with(Placeholder.PROGRESS, checked + "/" + total + " (" + (step * 100 / PROGRESS_STEPS) + "%)")
+                .with(Placeholder.COUNT, String.valueOf(forced.get()));
+        plugin.getMessageUtil().sendMessage(sender, "admin-force-bulk-progress", progressArgs);
+    }
+}
@@ -0,0 +1,230 @@
+package io.mckenz.modemanager.services;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.listeners.ProtectionFeature;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Marks items obtained in creative mode with a one-byte persistent data marker, so they can be
+ * recognised wherever they end up: in an item frame, a death drop or another plugin's inventory.
+ * Checking an item is a single lookup in its persistent data, configured under protection.creative-item-tagging.
+ */
+public class CreativeItemMarker {
+    /**
+     * What to do with a marked item found outside creative mode
+     */
+    public enum Action {
+        /**
+         * Remove the item
+         */
+        STRIP,
+        /**
+         * Cancel the action and leave the item where it is
+         */
+        DENY
+    }
+    
+    private static final byte MARKER = 1;
+    
+    private final ModeManager plugin;
+    private final NamespacedKey key;
+    private final LongAdder tagged = new LongAdder();
+    private final LongAdder stripped = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private volatile boolean enabled;
+    private volatile Action pickupAction;
+    private volatile Action inventoryAction;
+    private volatile boolean stripOnModeSwitch;
+    
+    /**
+     * Constructor for CreativeItemMarker
+     * 
+     * @param plugin The plugin instance
+     */
+    public CreativeItemMarker(ModeManager plugin) {
+        this.plugin = plugin;
+        this.key = new NamespacedKey(plugin, "creative");
+        reload();
+    }
+    
+    /**
+     * Reload the marker settings from the config
+     */
+    public void reload() {
+        enabled = ProtectionFeature.CREATIVE_ITEM_TAGGING.isEnabled(plugin);
+        pickupAction = readAction("protection.creative-item-tagging.pickup-action", Action.STRIP);
+        inventoryAction = readAction("protection.creative-item-tagging.inventory-action", Action.DENY);
+        stripOnModeSwitch = plugin.getConfig().getBoolean("protection.creative-item-tagging.strip-on-mode-switch", true);
+    }
+    
+    /**
+     * Read an action from the config
+     * 
+     * @param path The config path
+     * @param defaultAction The action when the config does not set a valid one
+     * @return The action
+     */
+    private Action readAction(String path, Action defaultAction) {
+        String value = plugin.getConfig().getString(path, defaultAction.name());
+        try {
+            return Action.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid action in config at " + path + ": " + value + ". Using " + defaultAction + " instead.");
+            return defaultAction;
+        }
+    }
+    
+    /**
+     * Check if creative items are being marked
+     * 
+     * @return True if marking is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Get the action taken when a player outside creative mode picks up a marked item
+     * 
+     * @return The pickup action
+     */
+    public Action getPickupAction() {
+        return pickupAction;
+    }
+    
+    /**
+     * Get the action taken when a player outside creative mode clicks a marked item in an inventory
+     * 
+     * @return The inventory action
+     */
+    public Action getInventoryAction() {
+        return inventoryAction;
+    }
+    
+    /**
+     * Check if an item carries the creative marker
+     * 
+     * @param item The item, or null for an empty slot
+     * @return True if the item is marked
+     */
+    public boolean isTagged(ItemStack item) {
+        // Items without meta cannot carry the marker, which avoids copying any meta for plain stacks
+        if (item == null || !item.hasItemMeta()) {
+            return false;
+        }
+        
+        ItemMeta meta = item.getItemMeta();
+        return meta != null && meta.getPersistentDataContainer().has(key, PersistentDataType.BYTE);
+    }
+    
+    /**
+     * Mark an item as obtained in creative mode
+     * 
+     * @param item The item, changed in place
+     * @return True if the marker was added, false if the item was empty or already marked
+     */
+    public boolean tag(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR || isTagged(item)) {
+            return false;
+        }
+        
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) {
+            return false;
+        }
+        
+        meta.getPersistentDataContainer().set(key, PersistentDataType.BYTE, MARKER);
+        item.setItemMeta(meta);
+        tagged.increment();
+        return true;
+    }
+    
+    /**
+     * Remove marked items from a player's inventory and ender chest after they switched out of creative mode
+     * 
+     * @param player The player
+     * @return The number of stacks removed
+     */
+    public int stripInventory(Player player) {
+        if (!enabled || !stripOnModeSwitch) {
+            return 0;
+        }
+        
+        int removed = strip(player.getInventory()) + strip(player.getEnderChest());
+        
+        if (removed > 0) {
+            stripped.add(removed);
+            plugin.getMessageUtil().sendMessage(player, "creative-item-stripped");
+            plugin.logDebug("Removed " + removed + " creative item stacks from " + player.getName() + "'s inventory");
+        }
+        return removed;
+    }
+    
+    /**
+     * Remove marked items from an inventory
+     * 
+     * @param inventory The inventory
+     * @return The number of stacks removed
+     */
+    private int strip(Inventory inventory) {
+        int removed = 0;
+        
+        for (int slot = 0; slot < inventory.getSize(); slot++) {
+            if (isTagged(inventory.getItem(slot))) {
+                inventory.setItem(slot, null);
+                removed++;
+            }
+        }
+        
+        return removed;
+    }
+    
+    /**
+     * Count a marked item removed outside creative mode
+     */
+    public void recordStripped() {
+        stripped.increment();
+    }
+    
+    /**
+     * Count an action on a marked item denied outside creative mode
+     */
+    public void recordDenied() {
+        denied.increment();
+    }
+    
+    /**
+     * Get the number of items marked since startup
+     * 
+     * @return The marked count
+     */
+    public long getTagged() {
+        return tagged.sum();
+    }
+    
+    /**
+     * Get the number of marked item stacks removed outside creative mode since startup
+     * 
+     * @return The removed count
+     */
+    public long getStripped() {
+        return stripped.sum();
+    }
+    
+    /**
+     * Get the number of actions on marked items denied outside creative mode since startup
+     * 
+     * @return The denied count
+     */
+    public long getDenied() {
+        return denied.sum();
+    }
+}
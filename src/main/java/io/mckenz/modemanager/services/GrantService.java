@@ -0,0 +1,370 @@
+package io.mckenz.modemanager.services;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.storage.IoOperation;
+import io.mckenz.modemanager.util.DurationFormat;
+import io.mckenz.modemanager.util.Placeholder;
+import io.mckenz.modemanager.util.SchedulerAdapter;
+import io.mckenz.modemanager.util.TimingWheel;
+import org.bukkit.GameMode;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+/**
+ * Temporary creative grants.
+ * A grant puts a player into creative mode and counts as the creative permission until it expires,
+ * after which the player is returned to the mode they had before. Expiry is tracked in a hashed
+ * timing wheel advanced once per tick, so checking for expired grants costs the same no matter how
+ * many grants exist. Grants are saved to temporary-grants.yml so they survive restarts; a grant that
+ * expires while its player is offline is reverted when they next join.
+ */
+public class GrantService {
+    private static final long TICK_MILLIS = 50L;
+    private static final int WHEEL_SLOTS = 1024;
+    
+    private final ModeManager plugin;
+    private final File dataFile;
+    private final Map<UUID, Grant> grants = new ConcurrentHashMap<>();
+    private final TimingWheel<UUID> wheel;
+    private final long originMillis;
+    private final AtomicBoolean saveQueued = new AtomicBoolean();
+    private SchedulerAdapter.Task task;
+    
+    /**
+     * Constructor for GrantService
+     * 
+     * @param plugin The plugin instance
+     */
+    public GrantService(ModeManager plugin) {
+        this.plugin = plugin;
+        this.dataFile = new File(plugin.getDataFolder(), "temporary-grants.yml");
+        this.originMillis = System.currentTimeMillis();
+        this.wheel = new TimingWheel<>(WHEEL_SLOTS, 0L);
+        loadGrants();
+    }
+    
+    /**
+     * Start advancing the timing wheel every tick
+     */
+    public void start() {
+        if (task == null) {
+            task = plugin.getScheduler().runGlobalTimer(this::tick, 1L, 1L);
+        }
+    }
+    
+    /**
+     * Stop advancing the timing wheel; grants stay saved and resume on the next start
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    /**
+     * Grant a player creative mode for a duration, replacing any grant they already have.
+     * The grant is applied on the player's thread, immediately when called from it.
+     * 
+     * @param player The player
+     * @param duration How long the grant lasts, capped at {@link DurationFormat#MAX}
+     * @param grantedBy The name of who gave the grant
+     * @return A future completed with true if the player was put into creative mode
+     */
+    public CompletableFuture<Boolean> grant(Player player, Duration duration, String grantedBy) {
+        Duration length = duration.compareTo(DurationFormat.MAX) > 0 ? DurationFormat.MAX : duration;
+        return plugin.getAsyncExecutor().supplyForEntity(player,
+                () -> player.isOnline() && applyGrant(player, length, grantedBy), false);
+    }
+    
+    /**
+     * Grant a player creative mode on the player's thread
+     * 
+     * @param player The player
+     * @param length How long the grant lasts
+     * @param grantedBy The name of who gave the grant
+     * @return True if the player was put into creative mode
+     */
+    private boolean applyGrant(Player player, Duration length, String grantedBy) {
+        UUID playerUuid = player.getUniqueId();
+        long expiresAt = System.currentTimeMillis() + length.toMillis();
+        
+        // Keep the original mode to return to when an existing grant is extended
+        Grant previous = grants.get(playerUuid);
+        GameMode revertMode = previous != null ? previous.revertMode
+                : plugin.getPlayerDataManager().getPlayerData(player).getCurrentMode();
+        
+        Grant grant = new Grant(expiresAt, revertMode, grantedBy);
+        grant.timeout = wheel.schedule(playerUuid, toDeadlineTick(expiresAt));
+        if (previous != null) {
+            previous.timeout.cancel();
+        }
+        grants.put(playerUuid, grant);
+        queueSave();
+        
+        // The grant counts as the creative permission from now on
+        plugin.getPermissionCache().invalidate(playerUuid);
+        boolean success = plugin.getModeService().forcePlayerMode(player, GameMode.CREATIVE,
+                "Temporary creative for " + DurationFormat.format(length), grantedBy);
+        
+        plugin.getMessageUtil().sendMessage(player, "grant-received",
+                Placeholder.TIME, DurationFormat.format(length), Placeholder.ADMIN, grantedBy);
+        plugin.logDebug(grantedBy + " granted " + player.getName() + " creative mode for " + DurationFormat.format(length));
+        return success;
+    }
+    
+    /**
+     * Revoke a player's grant, returning them to their previous mode if they are online
+     * 
+     * @param playerUuid The player UUID
+     * @return True if the player had a grant
+     */
+    public boolean revoke(UUID playerUuid) {
+        Grant grant = grants.get(playerUuid);
+        if (grant == null) {
+            return false;
+        }
+        
+        grant.timeout.cancel();
+        Player player = plugin.getServer().getPlayer(playerUuid);
+        if (player != null) {
+            plugin.getScheduler().runForEntity(player, () -> revert(player, grant), null, 1L);
+        } else {
+            // Offline players are reverted when they join
+            grant.expiresAt = Math.min(grant.expiresAt, System.currentTimeMillis());
+            queueSave();
+        }
+        return true;
+    }
+    
+    /**
+     * Check if a player has a grant that has not expired yet
+     * 
+     * @param playerUuid The player UUID
+     * @return True if the player has an active grant
+     */
+    public boolean hasActiveGrant(UUID playerUuid) {
+        Grant grant = grants.get(playerUuid);
+        return grant != null && grant.expiresAt > System.currentTimeMillis();
+    }
+    
+    /**
+     * Get when a player's grant expires
+     * 
+     * @param playerUuid The player UUID
+     * @return The expiry time, or null if the player has no active grant
+     */
+    public Instant getExpiry(UUID playerUuid) {
+        Grant grant = grants.get(playerUuid);
+        if (grant == null || grant.expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        return Instant.ofEpochMilli(grant.expiresAt);
+    }
+    
+    /**
+     * Get the number of grants, including expired grants of offline players
+     * 
+     * @return The number of grants
+     */
+    public int getGrantCount() {
+        return grants.size();
+    }
+    
+    /**
+     * Reapply or revert a joining player's grant
+     * 
+     * @param player The player
+     */
+    public void handleJoin(Player player) {
+        Grant grant = grants.get(player.getUniqueId());
+        if (grant == null) {
+            return;
+        }
+        
+        long remainingMillis = grant.expiresAt - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            revert(player, grant);
+            return;
+        }
+        
+        // The permission cache was refreshed on join and already includes the grant
+        plugin.getMessageUtil().sendMessage(player, "grant-active",
+                Placeholder.TIME, DurationFormat.format(Duration.ofMillis(remainingMillis)));
+    }
+    
+    /**
+     * Advance the timing wheel to the current time
+     */
+    private void tick() {
+        wheel.advanceTo(toTick(System.currentTimeMillis()), this::expire);
+    }
+    
+    /**
+     * Handle a grant reaching its deadline
+     * 
+     * @param playerUuid The player UUID
+     */
+    private void expire(UUID playerUuid) {
+        Grant grant = grants.get(playerUuid);
+        if (grant == null || grant.expiresAt > System.currentTimeMillis()) {
+            return;
+        }
+        
+        // Offline players keep the expired grant until they join so they can be reverted then
+        Player player = plugin.getServer().getPlayer(playerUuid);
+        if (player != null) {
+            plugin.getScheduler().runForEntity(player, () -> revert(player, grant), null, 1L);
+        }
+    }
+    
+    /**
+     * Remove a grant and return the player to the mode they had before it
+     * 
+     * @param player The player
+     * @param grant The grant
+     */
+    private void revert(Player player, Grant grant) {
+        if (!grants.remove(player.getUniqueId(), grant)) {
+            return;
+        }
+        queueSave();
+        plugin.getPermissionCache().invalidate(player.getUniqueId());
+        
+        if (plugin.getPlayerDataManager().getPlayerData(player).getCurrentMode() == GameMode.CREATIVE
+                && grant.revertMode != GameMode.CREATIVE) {
+            plugin.getModeService().forcePlayerMode(player, grant.revertMode, "Temporary creative expired", grant.grantedBy);
+        }
+        
+        plugin.getMessageUtil().sendMessage(player, "grant-expired");
+        plugin.logDebug("Temporary creative grant of " + player.getName() + " ended");
+    }
+    
+    /**
+     * Convert a wall clock time to a timing wheel tick
+     * 
+     * @param epochMillis The time in milliseconds
+     * @return The tick
+     */
+    private long toTick(long epochMillis) {
+        return Math.max(0L, epochMillis - originMillis) / TICK_MILLIS;
+    }
+    
+    /**
+     * Convert an expiry time to the first timing wheel tick at or after it
+     * 
+     * @param epochMillis The expiry time in milliseconds
+     * @return The tick
+     */
+    private long toDeadlineTick(long epochMillis) {
+        return (Math.max(0L, epochMillis - originMillis) + TICK_MILLIS - 1) / TICK_MILLIS;
+    }
+    
+    /**
+     * Queue a save of the grants unless one is already queued
+     */
+    private void queueSave() {
+        if (!saveQueued.compareAndSet(false, true)) {
+            return;
+        }
+        
+        plugin.getIoExecutor().run(IoOperation.TEMPORARY_GRANTS_SAVE, () -> {
+            // Changes made from here on are picked up by the next save
+            saveQueued.set(false);
+            snapshotGrants().getAsBoolean();
+        });
+    }
+    
+    /**
+     * Snapshot the grants for writing later
+     * 
+     * @return A task writing the snapshot and returning true if it reached the disk
+     */
+    public BooleanSupplier snapshotGrants() {
+        YamlConfiguration config = new YamlConfiguration();
+        
+        for (Map.Entry<UUID, Grant> entry : grants.entrySet()) {
+            String path = "grants." + entry.getKey();
+            Grant grant = entry.getValue();
+            config.set(path + ".expires-at", grant.expiresAt);
+            config.set(path + ".revert-mode", grant.revertMode.name());
+            config.set(path + ".granted-by", grant.grantedBy);
+        }
+        
+        int count = grants.size();
+        return () -> writeGrants(config, count);
+    }
+    
+    /**
+     * Write a snapshot of the grants to disk
+     * 
+     * @param config The YAML snapshot
+     * @param count The number of grants in the snapshot
+     * @return True if the snapshot was written
+     */
+    private synchronized boolean writeGrants(YamlConfiguration config, int count) {
+        try {
+            plugin.getYamlStore().save(config, dataFile);
+            plugin.logDebug("Saved " + count + " temporary creative grants to disk");
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save temporary creative grants", e);
+            return false;
+        }
+    }
+    
+    /**
+     * Load the grants from disk and schedule their expiry
+     */
+    private void loadGrants() {
+        YamlConfiguration config = plugin.getYamlStore().load(dataFile);
+        ConfigurationSection section = config != null ? config.getConfigurationSection("grants") : null;
+        if (section == null) {
+            return;
+        }
+        
+        for (String key : section.getKeys(false)) {
+            try {
+                UUID playerUuid = UUID.fromString(key);
+                long expiresAt = section.getLong(key + ".expires-at");
+                GameMode revertMode = GameMode.valueOf(section.getString(key + ".revert-mode", "SURVIVAL"));
+                Grant grant = new Grant(expiresAt, revertMode, section.getString(key + ".granted-by", "Console"));
+                grant.timeout = wheel.schedule(playerUuid, toDeadlineTick(expiresAt));
+                grants.put(playerUuid, grant);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid temporary creative grant in " + dataFile.getName() + ": " + key);
+            }
+        }
+        
+        plugin.getLogger().info("Loaded " + grants.size() + " temporary creative grants from disk");
+    }
+    
+    /**
+     * A temporary creative grant
+     */
+    private static final class Grant {
+        private volatile long expiresAt;
+        private final GameMode revertMode;
+        private final String grantedBy;
+        private TimingWheel.Timeout<UUID> timeout;
+        
+        private Grant(long expiresAt, GameMode revertMode, String grantedBy) {
+            this.expiresAt = expiresAt;
+            this.revertMode = revertMode;
+            this.grantedBy = grantedBy;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.mckenz.modemanager.services;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.data.LoadoutCodec;
+import io.mckenz.modemanager.data.PlayerModeData;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Service for named creative loadouts.
+ * Loadouts are kept in the player's data as encoded blobs and decoded only when loaded;
+ * loading one goes through the same inventory restore as a mode switch.
+ * The number of loadouts a player may keep is inventories.loadouts.default-limit,
+ * raised by the highest modemanager.loadout.limit.&lt;number&gt; permission they have.
+ */
+public class LoadoutService {
+    private static final Pattern NAME = Pattern.compile("[a-z0-9_-]{1,16}");
+    private static final String LIMIT_PERMISSION_PREFIX = "modemanager.loadout.limit.";
+    
+    private final ModeManager plugin;
+    
+    /**
+     * Constructor for LoadoutService
+     * 
+     * @param plugin The plugin instance
+     */
+    public LoadoutService(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Check if a loadout name is valid
+     * 
+     * @param name The lower-case loadout name
+     * @return True if the name is 1 to 16 letters, digits, _ or -
+     */
+    public boolean isValidName(String name) {
+        return NAME.matcher(name).matches();
+    }
+    
+    /**
+     * Get the number of loadouts a player may keep
+     * 
+     * @param player The player
+     * @return The loadout limit
+     */
+    public int getLimit(Player player) {
+        int limit = Math.max(0, plugin.getConfig().getInt("inventories.loadouts.default-limit", 3));
+        
+        for (PermissionAttachmentInfo info : player.getEffectivePermissions()) {
+            String permission = info.getPermission();
+            if (!info.getValue() || !permission.startsWith(LIMIT_PERMISSION_PREFIX)) {
+                continue;
+            }
+            
+            try {
+                limit = Math.max(limit, Integer.parseInt(permission.substring(LIMIT_PERMISSION_PREFIX.length())));
+            } catch (NumberFormatException e) {
+                plugin.logDebug("Ignoring invalid loadout limit permission " + permission);
+            }
+        }
+        
+        return limit;
+    }
+    
+    /**
+     * Save a player's current inventory as a loadout, replacing a loadout of the same name
+     * 
+     * @param player The player
+     * @param name The lower-case loadout name
+     * @return True if the loadout was saved, false if it is new and the player is at their limit
+     */
+    public boolean save(Player player, String name) {
+        PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
+        int limit = getLimit(player);
+        String blob = LoadoutCodec.encode(player.getInventory().getContents());
+        
+        boolean saved = plugin.getPlayerDataManager().mutate(player.getUniqueId(), () -> {
+            if (data.getLoadout(name) == null && data.getLoadoutNames().size() >= limit) {
+                return false;
+            }
+            data.putLoadout(name, blob);
+            return true;
+        });
+        
+        if (saved) {
+            plugin.getPlayerDataManager().savePlayerDataAsync(player.getUniqueId());
+            plugin.logDebug("Saved loadout " + name + " for " + player.getName() + " (" + blob.length() + " characters)");
+        }
+        return saved;
+    }
+    
+    /**
+     * Decode a loadout and swap it into a player's inventory
+     * 
+     * @param player The player
+     * @param blob The encoded loadout
+     * @return True if the loadout was applied, false if it could not be decoded
+     */
+    public boolean load(Player player, String blob) {
+        ItemStack[] contents;
+        try {
+            contents = LoadoutCodec.decode(blob);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to decode a loadout of " + player.getName() + ": " + e.getMessage());
+            return false;
+        }
+        
+        plugin.getModeService().applyLoadout(player, contents);
+        return true;
+    }
+    
+    /**
+     * Delete a loadout
+     * 
+     * @param player The player
+     * @param name The lower-case loadout name
+     * @return True if the loadout existed
+     */
+    public boolean delete(Player player, String name) {
+        PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
+        boolean deleted = plugin.getPlayerDataManager().mutate(player.getUniqueId(), () -> data.removeLoadout(name));
+        
+        if (deleted) {
+            plugin.getPlayerDataManager().savePlayerDataAsync(player.getUniqueId());
+        }
+        return deleted;
+    }
+}
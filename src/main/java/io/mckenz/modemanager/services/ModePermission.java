@@ -0,0 +1,39 @@
+package io.mckenz.modemanager.services;
+
+/**
+ * ModeManager permissions that are checked on hot event paths and kept in the permission cache
+ */
+public enum ModePermission {
+    USE("modemanager.use"),
+    CREATIVE("modemanager.creative"),
+    BYPASS_ITEM_RESTRICTIONS("modemanager.bypass.itemrestrictions"),
+    BYPASS_CONTAINER_PLACEMENT("modemanager.bypass.containerplacement"),
+    BYPASS_CONTAINER_INTERACTION("modemanager.bypass.containerinteraction"),
+    BYPASS_MOB_SPAWNING("modemanager.bypass.mobspawning");
+    
+    private final String node;
+    private final int mask;
+    
+    ModePermission(String node) {
+        this.node = node;
+        this.mask = 1 << ordinal();
+    }
+    
+    /**
+     * Get the permission node
+     * 
+     * @return The permission node
+     */
+    public String getNode() {
+        return node;
+    }
+    
+    /**
+     * Get the bit of this permission in a cached permission set
+     * 
+     * @return The bit mask
+     */
+    int getMask() {
+        return mask;
+    }
+}
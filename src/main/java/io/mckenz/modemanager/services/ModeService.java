@@ -1,19 +1,37 @@
 package io.mckenz.modemanager.services;
 
 import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.data.InventoryProfile;
+import io.mckenz.modemanager.data.InventorySection;
+import io.mckenz.modemanager.data.InventorySnapshot;
 import io.mckenz.modemanager.data.PlayerModeData;
+import io.mckenz.modemanager.util.AsyncExecutor;
+import io.mckenz.modemanager.util.MessageUtil;
+import io.mckenz.modemanager.util.Placeholder;
 import org.bukkit.GameMode;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service class for handling mode switching
  */
 public class ModeService {
+    // Player inventory layout: 0-35 storage, 36-39 armor (boots to helmet), 40 off hand
+    private static final int ARMOR_START_SLOT = 36;
+    private static final int OFF_HAND_SLOT = 40;
+    
     private final ModeManager plugin;
+    private final LongAdder inventoryRestores = new LongAdder();
+    private final LongAdder slotsWritten = new LongAdder();
+    private final LongAdder sectionsSkipped = new LongAdder();
     
     /**
      * Constructor for ModeService
@@ -33,16 +51,59 @@ public class ModeService {
      * @return True if the mode was changed successfully
      */
     public boolean changePlayerMode(Player player, GameMode newMode, String reason) {
+        return applyModeChange(player, newMode, reason, true);
+    }
+    
+    /**
+     * Apply a mode change that waited in the rate limiter queue and already holds a switch token
+     * 
+     * @param player The player
+     * @param newMode The new mode
+     * @param reason The reason for the change
+     * @return True if the mode was changed successfully
+     */
+    public boolean applyQueuedModeChange(Player player, GameMode newMode, String reason) {
+        return applyModeChange(player, newMode, reason, false);
+    }
+    
+    /**
+     * Change a player's mode without blocking the calling thread.
+     * The player's data is already loaded while they are online, so the inventory swap runs on the
+     * main thread, or on the player's region thread on Folia, and the save runs on the I/O executor.
+     * 
+     * @param player The player
+     * @param newMode The new mode
+     * @param reason The reason for the change
+     * @return A future completed with true if the mode was changed successfully
+     */
+    public CompletableFuture<Boolean> changePlayerModeAsync(Player player, GameMode newMode, String reason) {
+        AsyncExecutor async = plugin.getAsyncExecutor();
+        
+        return async.supplyForEntity(player, () -> player.isOnline() && applyModeChange(player, newMode, reason, true), false)
+                // Complete callers on the API executor rather than the server thread
+                .thenApplyAsync(changed -> changed, async.getExecutor());
+    }
+    
+    /**
+     * Apply a mode change on the main thread
+     * 
+     * @param player The player
+     * @param newMode The new mode
+     * @param reason The reason for the change
+     * @param rateLimited True to take a token from the server-wide switch limit
+     * @return True if the mode was changed successfully
+     */
+    private boolean applyModeChange(Player player, GameMode newMode, String reason, boolean rateLimited) {
         PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
         
         // Check if the player is already in the requested mode
         if (data.getCurrentMode() == newMode) {
-            plugin.getMessageUtil().sendMessage(player, "already-in-mode", Map.of("mode", newMode.name()));
+            plugin.getMessageUtil().sendMessage(player, "already-in-mode", Placeholder.MODE, newMode.name());
             return true;
         }
         
         // Check if player has permission for the requested mode
-        if (newMode == GameMode.CREATIVE && !player.hasPermission("modemanager.creative")) {
+        if (newMode == GameMode.CREATIVE && !plugin.getPermissionCache().has(player, ModePermission.CREATIVE)) {
             plugin.getMessageUtil().sendMessage(player, "no-permission");
             return false;
         }
@@ -51,51 +112,63 @@ public class ModeService {
         int cooldown = plugin.getConfig().getInt("mode-switching.cooldown-seconds", 30);
         if (!data.isFirstModeChangeAfterJoin() && data.isInCooldown(cooldown)) {
             long remainingCooldown = data.getRemainingCooldown(cooldown);
-            plugin.getMessageUtil().sendMessage(player, "cooldown", Map.of("time", String.valueOf(remainingCooldown)));
+            plugin.getMessageUtil().sendMessage(player, "cooldown", Placeholder.TIME, String.valueOf(remainingCooldown));
             return false;
         }
         
-        // Save current inventory
-        savePlayerInventory(player, data);
+        // Check the server-wide switch limit, which also covers the first change after joining
+        if (rateLimited && !plugin.getRateLimiter().tryAcquireSwitch()) {
+            if (plugin.getRateLimiter().queueSwitch(player, newMode, reason)) {
+                plugin.getMessageUtil().sendMessage(player, "mode-switch-queued", Placeholder.MODE, newMode.name());
+            } else {
+                plugin.getMessageUtil().sendMessage(player, "mode-switch-rejected");
+            }
+            return false;
+        }
         
-        // Change the mode
-        GameMode oldMode = data.getCurrentMode();
-        data.setCurrentMode(newMode, reason);
+        // Save current inventory and change the mode
+        GameMode oldMode = plugin.getPlayerDataManager().mutate(player.getUniqueId(), () -> {
+            GameMode previousMode = data.getCurrentMode();
+            savePlayerInventory(player, data);
+            data.setCurrentMode(newMode, reason);
+            plugin.getModeTable().put(player.getUniqueId(), newMode);
+            
+            // If this was the first mode change after joining, mark it as used
+            if (data.isFirstModeChangeAfterJoin()) {
+                data.setFirstModeChangeAfterJoin(false);
+            }
+            return previousMode;
+        });
         
-        // If this was the first mode change after joining, mark it as used
-        if (data.isFirstModeChangeAfterJoin()) {
-            data.setFirstModeChangeAfterJoin(false);
-        }
+        // Keep a version of the inventory being switched out of for rollbacks
+        recordSnapshot(player, data, oldMode, reason);
         
-        // Clear potion effects when switching from creative to survival
-        if (oldMode == GameMode.CREATIVE && newMode == GameMode.SURVIVAL) {
+        // Clear potion effects when leaving creative
+        if (oldMode == GameMode.CREATIVE && newMode != GameMode.CREATIVE) {
             if (!player.getActivePotionEffects().isEmpty()) {
                 player.getActivePotionEffects().forEach(effect -> player.removePotionEffect(effect.getType()));
                 plugin.getMessageUtil().sendMessage(player, "potion-effects-cleared");
-                plugin.logDebug("Cleared potion effects for " + player.getName() + " when switching from creative to survival");
+                plugin.logDebug("Cleared potion effects for " + player.getName() + " when leaving creative");
             }
         }
         
         // Restore inventory for the new mode
-        restorePlayerInventory(player, data);
+        restorePlayerInventory(player, data, true);
         
         // Set the player's game mode
         player.setGameMode(newMode);
         
         // Send message to the player
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("mode", newMode.name());
-        plugin.getMessageUtil().sendMessage(player, "mode-changed", placeholders);
+        plugin.getMessageUtil().sendMessage(player, "mode-changed", Placeholder.MODE, newMode.name());
         
         // Broadcast if enabled
         if (plugin.getConfig().getBoolean("mode-switching.broadcast-changes", false)) {
-            placeholders.put("player", player.getName());
-            placeholders.put("old_mode", oldMode.name());
-            plugin.getMessageUtil().broadcastMessage("mode-changed-broadcast", placeholders);
+            plugin.getMessageUtil().broadcastMessage("mode-changed-broadcast", MessageUtil.args(
+                    Placeholder.PLAYER, player.getName(), Placeholder.OLD_MODE, oldMode.name(), Placeholder.MODE, newMode.name()));
         }
         
         // Save player data
-        plugin.getPlayerDataManager().savePlayerData(player.getUniqueId());
+        plugin.getPlayerDataManager().savePlayerDataAsync(player.getUniqueId());
         
         plugin.logDebug("Changed " + player.getName() + "'s mode from " + oldMode + " to " + newMode + " (" + reason + ")");
         return true;
@@ -111,6 +184,20 @@ public class ModeService {
      * @return True if the mode was changed successfully
      */
     public boolean forcePlayerMode(Player player, GameMode newMode, String reason, String adminName) {
+        return forcePlayerMode(player, newMode, reason, adminName, true);
+    }
+    
+    /**
+     * Force a player's mode change, bypassing cooldowns and permissions
+     * 
+     * @param player The player
+     * @param newMode The new mode
+     * @param reason The reason for the change
+     * @param adminName The name of the admin who forced the mode change
+     * @param save False to leave saving the player's data to the caller, for example to batch saves
+     * @return True if the mode was changed successfully
+     */
+    public boolean forcePlayerMode(Player player, GameMode newMode, String reason, String adminName, boolean save) {
         PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
         
         // Check if the player is already in the requested mode
@@ -118,167 +205,412 @@ public class ModeService {
             return true;
         }
         
-        // Save current inventory
-        savePlayerInventory(player, data);
-        
-        // Change the mode
-        GameMode oldMode = data.getCurrentMode();
+        // Save current inventory and change the mode
         String fullReason = "Forced by " + adminName + (reason != null && !reason.isEmpty() ? ": " + reason : "");
-        data.setCurrentMode(newMode, fullReason);
+        GameMode oldMode = plugin.getPlayerDataManager().mutate(player.getUniqueId(), () -> {
+            GameMode previousMode = data.getCurrentMode();
+            savePlayerInventory(player, data);
+            data.setCurrentMode(newMode, fullReason);
+            plugin.getModeTable().put(player.getUniqueId(), newMode);
+            return previousMode;
+        });
+        
+        // Keep a version of the inventory being switched out of for rollbacks
+        recordSnapshot(player, data, oldMode, fullReason);
         
-        // Clear potion effects when switching from creative to survival
-        if (oldMode == GameMode.CREATIVE && newMode == GameMode.SURVIVAL) {
+        // Clear potion effects when leaving creative
+        if (oldMode == GameMode.CREATIVE && newMode != GameMode.CREATIVE) {
             if (!player.getActivePotionEffects().isEmpty()) {
                 player.getActivePotionEffects().forEach(effect -> player.removePotionEffect(effect.getType()));
                 plugin.getMessageUtil().sendMessage(player, "potion-effects-cleared");
-                plugin.logDebug("Cleared potion effects for " + player.getName() + " when switching from creative to survival (forced)");
+                plugin.logDebug("Cleared potion effects for " + player.getName() + " when leaving creative (forced)");
             }
         }
         
         // Restore inventory for the new mode
-        restorePlayerInventory(player, data);
+        restorePlayerInventory(player, data, true);
         
         // Set the player's game mode using Bukkit's API directly
         player.setGameMode(newMode);
         
         // Send message to the player
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("mode", newMode.name());
-        placeholders.put("admin", adminName);
-        plugin.getMessageUtil().sendMessage(player, "mode-forced", placeholders);
+        plugin.getMessageUtil().sendMessage(player, "mode-forced", Placeholder.MODE, newMode.name(), Placeholder.ADMIN, adminName);
         
         // Broadcast if enabled
         if (plugin.getConfig().getBoolean("mode-switching.broadcast-changes", false)) {
-            placeholders.put("player", player.getName());
-            placeholders.put("old_mode", oldMode.name());
-            plugin.getMessageUtil().broadcastMessage("mode-changed-broadcast", placeholders);
+            plugin.getMessageUtil().broadcastMessage("mode-changed-broadcast", MessageUtil.args(
+                    Placeholder.PLAYER, player.getName(), Placeholder.OLD_MODE, oldMode.name(), Placeholder.MODE, newMode.name()));
         }
         
         // Save player data
-        plugin.getPlayerDataManager().savePlayerData(player.getUniqueId());
+        if (save) {
+            plugin.getPlayerDataManager().savePlayerDataAsync(player.getUniqueId());
+        }
         
         plugin.logDebug("Admin " + adminName + " forced " + player.getName() + "'s mode from " + oldMode + " to " + newMode + " (" + reason + ")");
         return true;
     }
     
     /**
-     * Save a player's inventory
+     * Move a player to another inventory group without changing their mode.
+     * The player's inventory is saved into the current group's profile, the group's profiles are swapped
+     * for the new ones and the current mode's profile of the new group is restored.
+     * 
+     * @param player The player
+     * @param group The inventory group to move to
+     * @param profiles The new group's profiles by game mode
+     * @return The profiles of the group the player left
+     */
+    public Map<GameMode, InventoryProfile> switchInventoryGroup(Player player, String group, Map<GameMode, InventoryProfile> profiles) {
+        PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
+        
+        Map<GameMode, InventoryProfile> previous = plugin.getPlayerDataManager().mutate(player.getUniqueId(), () -> {
+            savePlayerInventory(player, data);
+            return data.replaceProfiles(group, profiles);
+        });
+        
+        // The player keeps their mode, so the new group's inventory is restored even in creative
+        restorePlayerInventory(player, data, false);
+        return previous;
+    }
+    
+    /**
+     * Roll a player's inventory of one mode back to a snapshot.
+     * The inventory being replaced is recorded as a snapshot first, so a rollback can itself be rolled back.
+     * A snapshot of the player's current mode is written into their inventory, one of another mode into that mode's profile.
+     * 
+     * @param player The player
+     * @param snapshot The snapshot, with its contents rebuilt
+     * @param adminName The name of the admin who rolled the inventory back
+     */
+    public void rollbackInventory(Player player, InventorySnapshot snapshot, String adminName) {
+        PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
+        GameMode mode = snapshot.getRecord().getGameMode();
+        boolean separateEnderChest = plugin.getConfig().getBoolean("inventories.separate-ender-chest", true);
+        ItemStack[] contents = snapshot.getContents();
+        ItemStack[] enderChest = separateEnderChest ? snapshot.getEnderChestContents() : null;
+        String reason = "Before rollback by " + adminName;
+        
+        if (data.getCurrentMode() == mode) {
+            recordSnapshot(player, data, mode, reason);
+            writeInventory(player, contents, null, null, enderChest);
+        } else {
+            InventoryProfile current = data.getProfile(mode);
+            if (current != null && current.getInventory() != null) {
+                plugin.getSnapshotLog().record(player.getUniqueId(), data.getInventoryGroup(), mode, reason,
+                        current.getInventory(), separateEnderChest ? current.getEnderChestContents() : null);
+            }
+            
+            plugin.getPlayerDataManager().mutate(player.getUniqueId(), () -> {
+                InventoryProfile profile = data.getOrCreateProfile(mode);
+                profile.setInventory(contents);
+                profile.setArmorContents(Arrays.copyOfRange(contents, ARMOR_START_SLOT, OFF_HAND_SLOT));
+                profile.setOffHandItem(contents.length > OFF_HAND_SLOT ? contents[OFF_HAND_SLOT] : null);
+                if (enderChest != null) {
+                    profile.setEnderChestContents(enderChest);
+                }
+                return null;
+            });
+        }
+        
+        plugin.getPlayerDataManager().savePlayerDataAsync(player.getUniqueId());
+        plugin.logDebug("Admin " + adminName + " rolled back " + player.getName() + "'s " + mode + " inventory to "
+                + snapshot.getRecord().getFormattedTimestamp());
+    }
+    
+    /**
+     * Append the inventory a player holds to their snapshot log
+     * 
+     * @param player The player
+     * @param data The player's mode data
+     * @param mode The mode the inventory belongs to
+     * @param reason The reason of the snapshot
+     */
+    private void recordSnapshot(Player player, PlayerModeData data, GameMode mode, String reason) {
+        boolean separateEnderChest = plugin.getConfig().getBoolean("inventories.separate-ender-chest", true);
+        plugin.getSnapshotLog().record(player.getUniqueId(), data.getInventoryGroup(), mode, reason,
+                player.getInventory().getContents(), separateEnderChest ? player.getEnderChest().getContents() : null);
+    }
+    
+    /**
+     * Save a player's inventory.
+     * Each section is fingerprinted first and only copied if it changed since it was last saved.
+     * The player file is still written in full, as the mode and history it holds change with every switch.
      * 
      * @param player The player
      * @param data The player's mode data
      */
     private void savePlayerInventory(Player player, PlayerModeData data) {
         GameMode currentMode = data.getCurrentMode();
+        PlayerInventory inventory = player.getInventory();
+        boolean saveArmor = plugin.getConfig().getBoolean("inventories.save-armor-contents", true);
+        boolean saveOffHand = plugin.getConfig().getBoolean("inventories.save-offhand-items", true);
+        boolean separateEnderChest = plugin.getConfig().getBoolean("inventories.separate-ender-chest", true);
         
-        if (currentMode == GameMode.SURVIVAL) {
-            // Save survival inventory
-            data.setSurvivalInventory(player.getInventory().getContents());
-            
-            // Save armor if enabled
-            if (plugin.getConfig().getBoolean("inventories.save-armor-contents", true)) {
-                data.setSurvivalArmorContents(player.getInventory().getArmorContents());
-            }
-            
-            // Save offhand if enabled
-            if (plugin.getConfig().getBoolean("inventories.save-offhand-items", true)) {
-                data.setSurvivalOffHandItem(player.getInventory().getItemInOffHand());
-            }
-            
-            // Save ender chest if enabled
-            if (plugin.getConfig().getBoolean("inventories.separate-ender-chest", true)) {
-                data.setSurvivalEnderChestContents(player.getEnderChest().getContents());
-            }
-        } else if (currentMode == GameMode.CREATIVE) {
-            // Save creative inventory
-            data.setCreativeInventory(player.getInventory().getContents());
+        // The profile is allocated the first time the mode is used
+        InventoryProfile profile = data.getOrCreateProfile(currentMode);
+        
+        // Save inventory
+        saveSection(profile, InventorySection.INVENTORY, inventory, 0, inventory.getSize(), profile.getInventory(),
+                    () -> profile.setInventory(InventoryProfile.copyOf(inventory.getContents())));
+        
+        // Save armor if enabled
+        if (saveArmor) {
+            saveSection(profile, InventorySection.ARMOR, inventory, ARMOR_START_SLOT, OFF_HAND_SLOT, profile.getArmorContents(),
+                        () -> profile.setArmorContents(InventoryProfile.copyOf(inventory.getArmorContents())));
+        }
+        
+        // Save offhand if enabled
+        if (saveOffHand) {
+            saveSection(profile, InventorySection.OFF_HAND, inventory, OFF_HAND_SLOT, OFF_HAND_SLOT + 1,
+                        new ItemStack[] {profile.getOffHandItem()},
+                        () -> profile.setOffHandItem(InventoryProfile.copyOf(inventory.getItemInOffHand())));
+        }
+        
+        // Save ender chest if enabled
+        if (separateEnderChest) {
+            Inventory enderChest = player.getEnderChest();
+            saveSection(profile, InventorySection.ENDER_CHEST, enderChest, 0, enderChest.getSize(), profile.getEnderChestContents(),
+                        () -> profile.setEnderChestContents(InventoryProfile.copyOf(enderChest.getContents())));
+        }
+    }
+    
+    /**
+     * Save one inventory section unless it is unchanged.
+     * A differing fingerprint proves a change; a matching one is confirmed slot by slot,
+     * since different contents can share a fingerprint.
+     * 
+     * @param profile The inventory profile of the mode the section belongs to
+     * @param section The inventory section
+     * @param inventory The inventory holding the section
+     * @param fromSlot The first slot of the section
+     * @param toSlot The slot after the last slot of the section
+     * @param stored The stored contents of the section, or null if none were saved
+     * @param store Copies the section into the profile
+     */
+    private void saveSection(InventoryProfile profile, InventorySection section, Inventory inventory,
+                             int fromSlot, int toSlot, ItemStack[] stored, Runnable store) {
+        long fingerprint = fingerprint(inventory, fromSlot, toSlot);
+        
+        if (fingerprint == profile.getFingerprint(section) && matches(inventory, fromSlot, toSlot, stored)) {
+            sectionsSkipped.increment();
+            return;
+        }
+        
+        store.run();
+        profile.setFingerprint(section, fingerprint);
+    }
+    
+    /**
+     * Check if a range of inventory slots holds the same stacks as stored contents
+     * 
+     * @param inventory The inventory
+     * @param fromSlot The first slot
+     * @param toSlot The slot after the last slot
+     * @param stored The stored contents, starting at the first slot, or null if none were saved
+     * @return True if every slot equals its stored stack
+     */
+    private static boolean matches(Inventory inventory, int fromSlot, int toSlot, ItemStack[] stored) {
+        if (stored == null) {
+            return false;
+        }
+        
+        for (int slot = fromSlot; slot < Math.min(toSlot, inventory.getSize()); slot++) {
+            int index = slot - fromSlot;
+            ItemStack storedItem = index < stored.length ? stored[index] : null;
+            ItemStack current = inventory.getItem(slot);
             
-            // Save armor if enabled
-            if (plugin.getConfig().getBoolean("inventories.save-armor-contents", true)) {
-                data.setCreativeArmorContents(player.getInventory().getArmorContents());
+            if (isEmpty(current) ? !isEmpty(storedItem) : !current.equals(storedItem)) {
+                return false;
             }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Compute a fingerprint of a range of inventory slots without copying them
+     * 
+     * @param inventory The inventory
+     * @param fromSlot The first slot
+     * @param toSlot The slot after the last slot
+     * @return The fingerprint, never {@link InventoryProfile#NO_FINGERPRINT}
+     */
+    private static long fingerprint(Inventory inventory, int fromSlot, int toSlot) {
+        long hash = 1125899906842597L;
+        
+        for (int slot = fromSlot; slot < Math.min(toSlot, inventory.getSize()); slot++) {
+            ItemStack item = inventory.getItem(slot);
+            long itemHash = 0L;
             
-            // Save offhand if enabled
-            if (plugin.getConfig().getBoolean("inventories.save-offhand-items", true)) {
-                data.setCreativeOffHandItem(player.getInventory().getItemInOffHand());
+            if (!isEmpty(item)) {
+                // ItemStack.hashCode covers type, amount and meta without cloning the meta
+                itemHash = ((long) item.hashCode() << 32) ^ (item.getType().ordinal() * 0x9E3779B97F4A7C15L + item.getAmount());
             }
             
-            // Save ender chest if enabled
-            if (plugin.getConfig().getBoolean("inventories.separate-ender-chest", true)) {
-                data.setCreativeEnderChestContents(player.getEnderChest().getContents());
-            }
+            hash = hash * 31 + (itemHash ^ (itemHash >>> 29));
         }
+        
+        return hash != InventoryProfile.NO_FINGERPRINT ? hash : 1L;
     }
     
     /**
-     * Restore a player's inventory
+     * Restore a player's inventory.
+     * Builds the target contents for the new mode and writes only the slots that differ
+     * from what the player currently holds, then syncs the inventory once.
      * 
      * @param player The player
      * @param data The player's mode data
+     * @param enteringMode True if the player switched into the mode, so creative starts empty when configured
      */
-    private void restorePlayerInventory(Player player, PlayerModeData data) {
+    private void restorePlayerInventory(Player player, PlayerModeData data, boolean enteringMode) {
         GameMode newMode = data.getCurrentMode();
+        boolean restoreArmor = plugin.getConfig().getBoolean("inventories.save-armor-contents", true);
+        boolean restoreOffHand = plugin.getConfig().getBoolean("inventories.save-offhand-items", true);
+        boolean separateEnderChest = plugin.getConfig().getBoolean("inventories.separate-ender-chest", true);
         
-        // Clear inventory first
-        player.getInventory().clear();
+        // Modes without a saved inventory start empty
+        ItemStack[] contents = null;
+        ItemStack[] armor = null;
+        ItemStack offHand = null;
+        ItemStack[] enderChest = null;
         
-        if (newMode == GameMode.SURVIVAL) {
-            // Restore survival inventory
-            if (data.getSurvivalInventory() != null) {
-                player.getInventory().setContents(data.getSurvivalInventory());
-            }
-            
-            // Restore armor if enabled
-            if (plugin.getConfig().getBoolean("inventories.save-armor-contents", true) && 
-                data.getSurvivalArmorContents() != null) {
-                player.getInventory().setArmorContents(data.getSurvivalArmorContents());
+        InventoryProfile profile = data.getProfile(newMode);
+        if (profile != null) {
+            // Creative starts empty if configured
+            if (!enteringMode || newMode != GameMode.CREATIVE || !plugin.getConfig().getBoolean("inventories.clear-on-creative", true)) {
+                contents = profile.getInventory();
+                armor = restoreArmor ? profile.getArmorContents() : null;
+                offHand = restoreOffHand ? profile.getOffHandItem() : null;
             }
-            
-            // Restore offhand if enabled
-            if (plugin.getConfig().getBoolean("inventories.save-offhand-items", true) && 
-                data.getSurvivalOffHandItem() != null) {
-                player.getInventory().setItemInOffHand(data.getSurvivalOffHandItem());
+            enderChest = separateEnderChest ? profile.getEnderChestContents() : null;
+        }
+        
+        writeInventory(player, contents, armor, offHand, enderChest);
+        
+        // Items taken from the creative inventory do not leave creative mode
+        if (newMode != GameMode.CREATIVE) {
+            plugin.getCreativeItemMarker().stripInventory(player);
+        }
+    }
+    
+    /**
+     * Replace a player's inventory with a loadout, through the same restore as a mode switch.
+     * The ender chest is left as it is.
+     * 
+     * @param player The player
+     * @param contents The loadout contents, one entry per inventory slot
+     */
+    public void applyLoadout(Player player, ItemStack[] contents) {
+        writeInventory(player, contents, null, null, null);
+    }
+    
+    /**
+     * Write target contents into a player's inventory, touching only the slots that differ
+     * from what the player currently holds, then sync the inventory once
+     * 
+     * @param player The player
+     * @param contents The inventory contents, or null to empty the inventory
+     * @param armor The armor contents placed over the contents, or null to keep the contents' armor slots
+     * @param offHand The off hand item placed over the contents, or null to keep the contents' off hand slot
+     * @param enderChest The ender chest contents, or null to leave the ender chest alone
+     */
+    private void writeInventory(Player player, ItemStack[] contents, ItemStack[] armor, ItemStack offHand, ItemStack[] enderChest) {
+        PlayerInventory inventory = player.getInventory();
+        ItemStack[] target = new ItemStack[inventory.getSize()];
+        
+        if (contents != null) {
+            System.arraycopy(contents, 0, target, 0, Math.min(contents.length, target.length));
+        }
+        
+        if (armor != null) {
+            for (int i = 0; i < armor.length && ARMOR_START_SLOT + i < target.length; i++) {
+                target[ARMOR_START_SLOT + i] = armor[i];
             }
+        }
+        
+        if (offHand != null && OFF_HAND_SLOT < target.length) {
+            target[OFF_HAND_SLOT] = offHand;
+        }
+        
+        int written = writeChangedSlots(inventory, target);
+        int compared = target.length;
+        
+        if (enderChest != null) {
+            Inventory playerEnderChest = player.getEnderChest();
+            written += writeChangedSlots(playerEnderChest, Arrays.copyOf(enderChest, playerEnderChest.getSize()));
+            compared += playerEnderChest.getSize();
+        }
+        
+        // Sync the client once, and only if something changed
+        if (written > 0) {
+            player.updateInventory();
+        }
+        
+        inventoryRestores.increment();
+        slotsWritten.add(written);
+        plugin.logDebug("Restored " + player.getName() + "'s inventory, wrote " + written + " of " + compared + " slots");
+    }
+    
+    /**
+     * Write the slots of an inventory that differ from the target contents
+     * 
+     * @param inventory The inventory
+     * @param target The target contents, one entry per slot
+     * @return The number of slots written
+     */
+    private static int writeChangedSlots(Inventory inventory, ItemStack[] target) {
+        int written = 0;
+        
+        for (int slot = 0; slot < target.length; slot++) {
+            ItemStack wanted = isEmpty(target[slot]) ? null : target[slot];
+            ItemStack current = inventory.getItem(slot);
             
-            // Restore ender chest if enabled
-            if (plugin.getConfig().getBoolean("inventories.separate-ender-chest", true) && 
-                data.getSurvivalEnderChestContents() != null) {
-                player.getEnderChest().clear();
-                player.getEnderChest().setContents(data.getSurvivalEnderChestContents());
-            }
-        } else if (newMode == GameMode.CREATIVE) {
-            // Clear inventory if configured
-            if (plugin.getConfig().getBoolean("inventories.clear-on-creative", true)) {
-                player.getInventory().clear();
-                player.getInventory().setArmorContents(new ItemStack[4]);
-                player.getInventory().setItemInOffHand(null);
-            } else {
-                // Restore creative inventory
-                if (data.getCreativeInventory() != null) {
-                    player.getInventory().setContents(data.getCreativeInventory());
-                }
-                
-                // Restore armor if enabled
-                if (plugin.getConfig().getBoolean("inventories.save-armor-contents", true) && 
-                    data.getCreativeArmorContents() != null) {
-                    player.getInventory().setArmorContents(data.getCreativeArmorContents());
-                }
-                
-                // Restore offhand if enabled
-                if (plugin.getConfig().getBoolean("inventories.save-offhand-items", true) && 
-                    data.getCreativeOffHandItem() != null) {
-                    player.getInventory().setItemInOffHand(data.getCreativeOffHandItem());
-                }
+            if (isEmpty(current) ? wanted == null : current.equals(wanted)) {
+                continue;
             }
             
-            // Restore ender chest if enabled
-            if (plugin.getConfig().getBoolean("inventories.separate-ender-chest", true) && 
-                data.getCreativeEnderChestContents() != null) {
-                player.getEnderChest().clear();
-                player.getEnderChest().setContents(data.getCreativeEnderChestContents());
-            }
+            inventory.setItem(slot, wanted);
+            written++;
         }
         
-        // Update the player's inventory
-        player.updateInventory();
+        return written;
+    }
+    
+    /**
+     * Check if an item stack represents an empty slot
+     * 
+     * @param item The item stack
+     * @return True if the slot is empty
+     */
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR || item.getAmount() <= 0;
+    }
+    
+    /**
+     * Get the number of unchanged inventory sections that were not copied since startup
+     * 
+     * @return The skipped section count
+     */
+    public long getInventorySectionsSkipped() {
+        return sectionsSkipped.sum();
+    }
+    
+    /**
+     * Get the number of inventory restores since startup
+     * 
+     * @return The restore count
+     */
+    public long getInventoryRestoreCount() {
+        return inventoryRestores.sum();
+    }
+    
+    /**
+     * Get the number of inventory and ender chest slots written by restores since startup
+     * 
+     * @return The slots written
+     */
+    public long getInventorySlotsWritten() {
+        return slotsWritten.sum();
     }
 } 
\ No newline at end of file
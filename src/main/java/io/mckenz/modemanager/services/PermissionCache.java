@@ -0,0 +1,119 @@
+package io.mckenz.modemanager.services;
+
+import io.mckenz.modemanager.ModeManager;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player cache of ModeManager permission decisions.
+ * Each player's permissions are stored as a bitset that is recomputed on join,
+ * on world change, on demand through the API, and after a short TTL as a safety net.
+ */
+public class PermissionCache {
+    private final ModeManager plugin;
+    private final Map<UUID, CachedPermissions> cache = new ConcurrentHashMap<>();
+    private volatile long ttlMillis;
+    
+    /**
+     * Constructor for PermissionCache
+     * 
+     * @param plugin The plugin instance
+     */
+    public PermissionCache(ModeManager plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    /**
+     * Reload the cache TTL from config and drop all cached decisions
+     */
+    public void reload() {
+        ttlMillis = Math.max(0, plugin.getConfig().getLong("performance.permission-cache-ttl-seconds", 30)) * 1000L;
+        cache.clear();
+    }
+    
+    /**
+     * Check if a player has a ModeManager permission, using the cached decision when it is fresh
+     * 
+     * @param player The player
+     * @param permission The permission to check
+     * @return True if the player has the permission, false otherwise
+     */
+    public boolean has(Player player, ModePermission permission) {
+        long now = System.currentTimeMillis();
+        CachedPermissions cached = cache.get(player.getUniqueId());
+        
+        if (cached == null || now - cached.computedAt >= ttlMillis) {
+            cached = compute(player, now);
+        }
+        
+        return (cached.bits & permission.getMask()) != 0;
+    }
+    
+    /**
+     * Recompute a player's cached permissions immediately
+     * 
+     * @param player The player
+     */
+    public void refresh(Player player) {
+        compute(player, System.currentTimeMillis());
+    }
+    
+    /**
+     * Invalidate a player's cached permissions so they are recomputed on next use
+     * 
+     * @param playerUuid The player UUID
+     */
+    public void invalidate(UUID playerUuid) {
+        cache.remove(playerUuid);
+    }
+    
+    /**
+     * Invalidate the cached permissions of all players
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+    
+    /**
+     * Compute and store a player's permission bitset
+     * 
+     * @param player The player
+     * @param now The current time in milliseconds
+     * @return The cached permissions
+     */
+    private CachedPermissions compute(Player player, long now) {
+        int bits = 0;
+        for (ModePermission permission : ModePermission.values()) {
+            if (player.hasPermission(permission.getNode())) {
+                bits |= permission.getMask();
+            }
+        }
+        
+        // A temporary creative grant counts as the creative permission while it lasts
+        GrantService grants = plugin.getGrantService();
+        if (grants != null && grants.hasActiveGrant(player.getUniqueId())) {
+            bits |= ModePermission.CREATIVE.getMask();
+        }
+        
+        CachedPermissions cached = new CachedPermissions(bits, now);
+        cache.put(player.getUniqueId(), cached);
+        return cached;
+    }
+    
+    /**
+     * Immutable permission bitset with the time it was computed
+     */
+    private static final class CachedPermissions {
+        private final int bits;
+        private final long computedAt;
+        
+        private CachedPermissions(int bits, long computedAt) {
+            this.bits = bits;
+            this.computedAt = computedAt;
+        }
+    }
+}
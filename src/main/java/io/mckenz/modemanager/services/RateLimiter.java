@@ -0,0 +1,322 @@
+package io.mckenz.modemanager.services;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.util.TokenBucket;
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Server-wide rate limits on mode switches and player data saves.
+ * Each is a token bucket with a configurable burst and refill rate under performance.rate-limit.
+ * Switches beyond the limit are queued (one entry per player, the latest request wins) or rejected;
+ * saves beyond the limit are always queued so no data is lost. Quit saves skip the limit, so a player
+ * rejoining never waits behind the queue. Queues are drained every 50ms as the buckets refill,
+ * on a thread of their own.
+ */
+public class RateLimiter {
+    private static final long DRAIN_INTERVAL_MILLIS = 50L;
+    
+    private final ModeManager plugin;
+    private final Map<UUID, SwitchRequest> queuedSwitches = new LinkedHashMap<>();
+    private final Queue<Runnable> queuedSaves = new ArrayDeque<>();
+    private final LongAdder switchesThrottled = new LongAdder();
+    private final LongAdder switchesRejected = new LongAdder();
+    private final LongAdder savesDelayed = new LongAdder();
+    private volatile TokenBucket switchBucket;
+    private volatile TokenBucket saveBucket;
+    private volatile boolean queueSwitches;
+    private volatile int maxQueuedSwitches;
+    private ScheduledExecutorService drainer;
+    
+    /**
+     * Constructor for RateLimiter
+     * 
+     * @param plugin The plugin instance
+     */
+    public RateLimiter(ModeManager plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    /**
+     * Reload the limits from the config; a refill rate of 0 disables a limit.
+     * Buckets whose settings did not change are kept with the tokens they hold.
+     */
+    public void reload() {
+        switchBucket = createBucket("performance.rate-limit.mode-switches", 20, 10.0, switchBucket);
+        saveBucket = createBucket("performance.rate-limit.player-saves", 50, 25.0, saveBucket);
+        queueSwitches = !plugin.getConfig().getString("performance.rate-limit.mode-switches.overflow", "QUEUE").equalsIgnoreCase("REJECT");
+        maxQueuedSwitches = Math.max(0, plugin.getConfig().getInt("performance.rate-limit.mode-switches.max-queue", 100));
+    }
+    
+    /**
+     * Create a bucket from a config section
+     * 
+     * @param path The config path
+     * @param defaultBurst The burst when the config does not set one
+     * @param defaultPerSecond The refill rate when the config does not set one
+     * @param current The bucket in use, or null if there is none
+     * @return The current bucket if its settings are unchanged, a new one if they changed, or null if the limit is disabled
+     */
+    private TokenBucket createBucket(String path, int defaultBurst, double defaultPerSecond, TokenBucket current) {
+        double perSecond = plugin.getConfig().getDouble(path + ".per-second", defaultPerSecond);
+        if (perSecond <= 0) {
+            return null;
+        }
+        
+        int burst = plugin.getConfig().getInt(path + ".burst", defaultBurst);
+        if (current != null && current.hasSettings(burst, perSecond)) {
+            return current;
+        }
+        return new TokenBucket(burst, perSecond);
+    }
+    
+    /**
+     * Start draining the queues
+     */
+    public void start() {
+        if (drainer == null) {
+            drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ModeManager Rate Limiter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            drainer.scheduleAtFixedRate(this::drain, DRAIN_INTERVAL_MILLIS, DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Stop the drain task, lift the limits and submit every queued save without waiting for tokens
+     */
+    public void stop() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+            drainer = null;
+        }
+        
+        switchBucket = null;
+        saveBucket = null;
+        
+        synchronized (queuedSwitches) {
+            queuedSwitches.clear();
+        }
+        
+        Runnable save;
+        while ((save = pollSave()) != null) {
+            save.run();
+        }
+    }
+    
+    /**
+     * Take a mode switch token
+     * 
+     * @return True if the switch may go ahead now
+     */
+    public boolean tryAcquireSwitch() {
+        TokenBucket bucket = switchBucket;
+        if (bucket == null || bucket.tryAcquire()) {
+            return true;
+        }
+        switchesThrottled.increment();
+        return false;
+    }
+    
+    /**
+     * Queue a throttled mode switch to run once a token is available
+     * 
+     * @param player The player
+     * @param newMode The requested mode
+     * @param reason The reason for the change
+     * @return True if the switch was queued, false if it was rejected
+     */
+    public boolean queueSwitch(Player player, GameMode newMode, String reason) {
+        if (!queueSwitches) {
+            switchesRejected.increment();
+            return false;
+        }
+        
+        synchronized (queuedSwitches) {
+            // A player's newer request replaces their queued one and keeps its place
+            SwitchRequest request = new SwitchRequest(player, newMode, reason);
+            if (queuedSwitches.replace(player.getUniqueId(), request) != null) {
+                return true;
+            }
+            
+            if (queuedSwitches.size() >= maxQueuedSwitches) {
+                switchesRejected.increment();
+                return false;
+            }
+            
+            queuedSwitches.put(player.getUniqueId(), request);
+            return true;
+        }
+    }
+    
+    /**
+     * Run a save now if a token is available, otherwise queue it until one is
+     * 
+     * @param save Starts the save and returns its future
+     * @return A future completed when the save completes
+     */
+    public CompletableFuture<Void> throttleSave(Supplier<CompletableFuture<Void>> save) {
+        TokenBucket bucket = saveBucket;
+        if (bucket == null || bucket.tryAcquire()) {
+            return save.get();
+        }
+        
+        savesDelayed.increment();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        synchronized (queuedSaves) {
+            queuedSaves.add(() -> save.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            }));
+        }
+        return result;
+    }
+    
+    /**
+     * Get the number of mode switches that found no token
+     * 
+     * @return The throttled count
+     */
+    public long getSwitchesThrottled() {
+        return switchesThrottled.sum();
+    }
+    
+    /**
+     * Get the number of mode switches refused because queueing is off or the queue was full
+     * 
+     * @return The rejected count
+     */
+    public long getSwitchesRejected() {
+        return switchesRejected.sum();
+    }
+    
+    /**
+     * Get the number of saves that had to wait for a token
+     * 
+     * @return The delayed count
+     */
+    public long getSavesDelayed() {
+        return savesDelayed.sum();
+    }
+    
+    /**
+     * Get the number of requests waiting for a token
+     * 
+     * @return The queued switches and saves
+     */
+    public int getQueued() {
+        int queued;
+        synchronized (queuedSwitches) {
+            queued = queuedSwitches.size();
+        }
+        synchronized (queuedSaves) {
+            return queued + queuedSaves.size();
+        }
+    }
+    
+    /**
+     * Drain the queues, keeping the drain task scheduled if a request fails
+     */
+    private void drain() {
+        try {
+            drainQueues();
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Failed to run rate limited requests: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Run as many queued saves and switches as the buckets allow
+     */
+    private void drainQueues() {
+        TokenBucket saves = saveBucket;
+        while (hasQueuedSave() && (saves == null || saves.tryAcquire())) {
+            Runnable save = pollSave();
+            if (save == null) {
+                break;
+            }
+            save.run();
+        }
+        
+        TokenBucket switches = switchBucket;
+        while (true) {
+            SwitchRequest request;
+            synchronized (queuedSwitches) {
+                Iterator<SwitchRequest> iterator = queuedSwitches.values().iterator();
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                
+                request = iterator.next();
+                
+                // Players who left give up their place without using a token
+                if (request.player.isOnline() && switches != null && !switches.tryAcquire()) {
+                    return;
+                }
+                iterator.remove();
+            }
+            
+            if (request.player.isOnline()) {
+                Player player = request.player;
+                plugin.getScheduler().runForEntity(player,
+                        () -> plugin.getModeService().applyQueuedModeChange(player, request.newMode, request.reason), null, 0L);
+            }
+        }
+    }
+    
+    /**
+     * Check if a save is waiting for a token
+     * 
+     * @return True if the save queue is not empty
+     */
+    private boolean hasQueuedSave() {
+        synchronized (queuedSaves) {
+            return !queuedSaves.isEmpty();
+        }
+    }
+    
+    /**
+     * Take the next queued save
+     * 
+     * @return The save, or null if none is queued
+     */
+    private Runnable pollSave() {
+        synchronized (queuedSaves) {
+            return queuedSaves.poll();
+        }
+    }
+    
+    /**
+     * A mode switch waiting for a token
+     */
+    private static final class SwitchRequest {
+        private final Player player;
+        private final GameMode newMode;
+        private final String reason;
+        
+        private SwitchRequest(Player player, GameMode newMode, String reason) {
+            this.player = player;
+            this.newMode = newMode;
+            this.reason = reason;
+        }
+    }
+}
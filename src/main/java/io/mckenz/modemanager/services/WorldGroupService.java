@@ -0,0 +1,156 @@
+package io.mckenz.modemanager.services;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.data.InventoryProfile;
+import io.mckenz.modemanager.data.PlayerModeData;
+import org.bukkit.GameMode;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Service keeping separate inventories per group of worlds, configured under inventories.world-groups.
+ * Profiles are keyed by (world group, mode): a player holds the profiles of the group they are in,
+ * and entering a world of another group loads that group's profiles on the I/O executor and applies
+ * them once loaded. The player keeps their current inventory until then, so nothing is lost or
+ * duplicated if they drop items or log out in between.
+ */
+public class WorldGroupService {
+    private static final Pattern GROUP_NAME = Pattern.compile("[a-z0-9_-]+");
+    
+    private final ModeManager plugin;
+    private final Map<UUID, String> pendingGroups = new ConcurrentHashMap<>();
+    private volatile Map<String, String> worldGroups = Map.of();
+    private volatile boolean enabled;
+    
+    /**
+     * Constructor for WorldGroupService
+     * 
+     * @param plugin The plugin instance
+     */
+    public WorldGroupService(ModeManager plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    /**
+     * Reload the world groups from the config.
+     * Players move to their new group the next time they change world or join.
+     */
+    public void reload() {
+        enabled = plugin.getConfig().getBoolean("inventories.world-groups.enabled", false);
+        
+        Map<String, String> groups = new HashMap<>();
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("inventories.world-groups.groups");
+        if (section != null) {
+            for (String group : section.getKeys(false)) {
+                if (!GROUP_NAME.matcher(group).matches()) {
+                    plugin.getLogger().warning("Ignoring world group " + group + ": names may only contain a-z, 0-9, _ and -");
+                    continue;
+                }
+                
+                for (String world : section.getStringList(group)) {
+                    String previous = groups.putIfAbsent(world.toLowerCase(Locale.ROOT), group);
+                    if (previous != null) {
+                        plugin.getLogger().warning("World " + world + " is in world groups " + previous + " and " + group + ", using " + previous);
+                    }
+                }
+            }
+        }
+        
+        worldGroups = groups;
+    }
+    
+    /**
+     * Get the inventory group of a world
+     * 
+     * @param world The world
+     * @return The group name, or the default group if the world is in no group or groups are disabled
+     */
+    public String getGroup(World world) {
+        if (!enabled) {
+            return PlayerModeData.DEFAULT_INVENTORY_GROUP;
+        }
+        return worldGroups.getOrDefault(world.getName().toLowerCase(Locale.ROOT), PlayerModeData.DEFAULT_INVENTORY_GROUP);
+    }
+    
+    /**
+     * Move a player to the inventory group of the world they are in, if it is not the group they hold.
+     * Must be called on the thread owning the player, after a world change or on join.
+     * 
+     * @param player The player
+     */
+    public void checkGroup(Player player) {
+        UUID playerUuid = player.getUniqueId();
+        PlayerModeData data = plugin.getPlayerDataManager().getPlayerData(player);
+        String group = getGroup(player.getWorld());
+        
+        // Returning to the held group before another group finished loading cancels that switch
+        if (group.equals(data.getInventoryGroup())) {
+            pendingGroups.remove(playerUuid);
+            return;
+        }
+        
+        if (group.equals(pendingGroups.put(playerUuid, group))) {
+            return;
+        }
+        
+        plugin.getPlayerDataManager().loadInventoryGroupAsync(playerUuid, group).whenComplete((profiles, error) -> {
+            if (error != null) {
+                pendingGroups.remove(playerUuid, group);
+                plugin.getLogger().warning("Failed to load inventory group " + group + " for " + player.getName() + ": " + error.getMessage());
+                return;
+            }
+            
+            plugin.getScheduler().runForEntity(player, () -> applyGroup(player, group, profiles),
+                    () -> pendingGroups.remove(playerUuid, group), 0L);
+        });
+    }
+    
+    /**
+     * Apply a loaded inventory group if the player is still waiting for it
+     * 
+     * @param player The player
+     * @param group The inventory group name
+     * @param profiles The group's profiles by game mode
+     */
+    private void applyGroup(Player player, String group, Map<GameMode, InventoryProfile> profiles) {
+        UUID playerUuid = player.getUniqueId();
+        
+        // A later world change replaced or cancelled this switch
+        if (!pendingGroups.remove(playerUuid, group) || !player.isOnline()) {
+            return;
+        }
+        
+        PlayerModeData data = plugin.getPlayerDataManager().getLoadedPlayerData(playerUuid);
+        if (data == null) {
+            return;
+        }
+        
+        String previousGroup = data.getInventoryGroup();
+        Map<GameMode, InventoryProfile> previous = plugin.getModeService().switchInventoryGroup(player, group, profiles);
+        plugin.getSnapshotLog().resetBases(playerUuid);
+        
+        // The group left behind is written before the player file naming the new group
+        plugin.getPlayerDataManager().saveInventoryGroupAsync(playerUuid, previousGroup, previous);
+        plugin.getPlayerDataManager().savePlayerDataAsync(playerUuid);
+        
+        plugin.logDebug("Moved " + player.getName() + " from inventory group " + previousGroup + " to " + group);
+    }
+    
+    /**
+     * Forget a player's pending group switch when they leave
+     * 
+     * @param playerUuid The player UUID
+     */
+    public void clearPlayer(UUID playerUuid) {
+        pendingGroups.remove(playerUuid);
+    }
+}
@@ -0,0 +1,115 @@
+package io.mckenz.modemanager.storage;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.jobs.Job;
+import io.mckenz.modemanager.jobs.JobPriority;
+import io.mckenz.modemanager.util.SchedulerAdapter;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Periodically saves changed player data and creative tracking data.
+ * Each autosave checkpoints the tracking stores and submits a job that saves the players whose
+ * data changed one per unit, so the job scheduler spreads them over ticks within its budget.
+ * Only the snapshot is taken on the server thread; the files are written on the I/O executor.
+ */
+public class AutosaveScheduler {
+    private static final long TICKS_PER_SECOND = 20L;
+    
+    private final ModeManager plugin;
+    private long intervalTicks;
+    private SchedulerAdapter.Task task;
+    private volatile AutosaveJob currentJob;
+    
+    /**
+     * Constructor for AutosaveScheduler
+     * 
+     * @param plugin The plugin instance
+     */
+    public AutosaveScheduler(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Start the autosave timer with the interval from the config
+     */
+    public void start() {
+        long intervalSeconds = plugin.getConfig().getLong("performance.autosave.interval-seconds", 300L);
+        intervalTicks = Math.max(0L, intervalSeconds) * TICKS_PER_SECOND;
+        
+        if (task == null && intervalTicks > 0) {
+            task = plugin.getScheduler().runGlobalTimer(this::startCycle, intervalTicks, intervalTicks);
+        }
+    }
+    
+    /**
+     * Restart the autosave timer if the interval in the config changed
+     */
+    public void reload() {
+        long intervalSeconds = plugin.getConfig().getLong("performance.autosave.interval-seconds", 300L);
+        if (Math.max(0L, intervalSeconds) * TICKS_PER_SECOND != intervalTicks) {
+            stop();
+            start();
+        }
+    }
+    
+    /**
+     * Stop the autosave timer and cancel a running autosave
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        
+        AutosaveJob job = currentJob;
+        if (job != null) {
+            job.cancel();
+        }
+    }
+    
+    /**
+     * Checkpoint the tracking stores and queue the changed players
+     */
+    private void startCycle() {
+        // Skip this interval if the previous autosave is still running
+        AutosaveJob previous = currentJob;
+        if (previous != null && !previous.isFinished()) {
+            plugin.logDebug("Previous autosave still running, skipping this interval");
+            return;
+        }
+        
+        // Tracking stores are snapshotted and written on the I/O executor
+        plugin.saveTrackingDataAsync();
+        
+        List<UUID> dirtyPlayers = plugin.getPlayerDataManager().getDirtyPlayers();
+        if (!dirtyPlayers.isEmpty()) {
+            currentJob = plugin.getJobScheduler().submit(new AutosaveJob(plugin, dirtyPlayers));
+        }
+    }
+    
+    /**
+     * Job saving one changed player per unit of work
+     */
+    private static final class AutosaveJob extends Job {
+        private final ModeManager plugin;
+        private final ArrayDeque<UUID> queue;
+        
+        private AutosaveJob(ModeManager plugin, List<UUID> players) {
+            super("Autosave", JobPriority.NORMAL, players.size());
+            this.plugin = plugin;
+            this.queue = new ArrayDeque<>(players);
+        }
+        
+        @Override
+        protected boolean step() {
+            UUID playerUuid = queue.poll();
+            if (playerUuid != null) {
+                plugin.getPlayerDataManager().savePlayerDataAsync(playerUuid);
+            }
+            return queue.isEmpty();
+        }
+    }
+}
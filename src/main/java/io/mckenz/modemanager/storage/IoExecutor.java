@@ -0,0 +1,229 @@
+package io.mckenz.modemanager.storage;
+
+import io.mckenz.modemanager.ModeManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs all disk and network I/O on virtual threads.
+ * Each {@link StorageTarget} has a semaphore limiting how many operations touch it at once;
+ * operations waiting for a permit park their virtual thread and count as queued.
+ */
+public class IoExecutor {
+    private final ModeManager plugin;
+    private final ExecutorService executor;
+    private final Map<StorageTarget, Semaphore> permits = new EnumMap<>(StorageTarget.class);
+    private final Map<IoOperation, OperationStats> stats = new EnumMap<>(IoOperation.class);
+    
+    /**
+     * Constructor for IoExecutor
+     * 
+     * @param plugin The plugin instance
+     */
+    public IoExecutor(ModeManager plugin) {
+        this.plugin = plugin;
+        
+        ThreadFactory factory = Thread.ofVirtual().name("ModeManager-IO-", 0).factory();
+        this.executor = Executors.newThreadPerTaskExecutor(factory);
+        
+        for (StorageTarget target : StorageTarget.values()) {
+            int concurrency = plugin.getConfig().getInt("performance.io-concurrency." + target.getConfigKey(),
+                                                        target.getDefaultConcurrency());
+            permits.put(target, new Semaphore(Math.max(1, concurrency), true));
+        }
+        
+        for (IoOperation operation : IoOperation.values()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+    }
+    
+    /**
+     * Run an I/O operation on a virtual thread
+     * 
+     * @param operation The operation type
+     * @param task The operation
+     * @param <T> The result type
+     * @return A future completed with the operation's result
+     */
+    public <T> CompletableFuture<T> submit(IoOperation operation, Callable<T> task) {
+        OperationStats operationStats = stats.get(operation);
+        Semaphore semaphore = permits.get(operation.getTarget());
+        CompletableFuture<T> future = new CompletableFuture<>();
+        
+        operationStats.queued.incrementAndGet();
+        executor.execute(() -> {
+            boolean acquired = false;
+            try {
+                semaphore.acquire();
+                acquired = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                operationStats.queued.decrementAndGet();
+            }
+            
+            if (!acquired) {
+                future.completeExceptionally(new IllegalStateException("Interrupted while waiting for " + operation.getDisplayName()));
+                return;
+            }
+            
+            operationStats.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                future.complete(task.call());
+            } catch (Exception e) {
+                operationStats.failed.increment();
+                plugin.getLogger().warning("I/O operation " + operation.getDisplayName() + " failed: " + e.getMessage());
+                future.completeExceptionally(e);
+            } finally {
+                operationStats.record(System.nanoTime() - start);
+                operationStats.inFlight.decrementAndGet();
+                semaphore.release();
+            }
+        });
+        
+        return future;
+    }
+    
+    /**
+     * Run an I/O operation without a result on a virtual thread
+     * 
+     * @param operation The operation type
+     * @param task The operation
+     * @return A future completed when the operation finishes
+     */
+    public CompletableFuture<Void> run(IoOperation operation, Runnable task) {
+        return submit(operation, () -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Get the statistics of an operation type
+     * 
+     * @param operation The operation type
+     * @return The operation statistics
+     */
+    public OperationStats getStats(IoOperation operation) {
+        return stats.get(operation);
+    }
+    
+    /**
+     * Stop accepting operations and wait for queued ones to finish
+     * 
+     * @param timeoutMillis The maximum time to wait in milliseconds
+     * @return True if every operation finished in time
+     */
+    public boolean shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        plugin.getLogger().warning("I/O operations did not finish within " + timeoutMillis + "ms");
+        return false;
+    }
+    
+    /**
+     * Queue depth, in-flight count and latency of one operation type
+     */
+    public static final class OperationStats {
+        private final IoOperation operation;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        
+        private OperationStats(IoOperation operation) {
+            this.operation = operation;
+        }
+        
+        private void record(long nanos) {
+            completed.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+        
+        /**
+         * Get the operation type
+         * 
+         * @return The operation type
+         */
+        public IoOperation getOperation() {
+            return operation;
+        }
+        
+        /**
+         * Get the number of operations waiting for a permit
+         * 
+         * @return The queue depth
+         */
+        public int getQueued() {
+            return queued.get();
+        }
+        
+        /**
+         * Get the number of operations currently running
+         * 
+         * @return The in-flight count
+         */
+        public int getInFlight() {
+            return inFlight.get();
+        }
+        
+        /**
+         * Get the number of finished operations, including failed ones
+         * 
+         * @return The completed count
+         */
+        public long getCompleted() {
+            return completed.sum();
+        }
+        
+        /**
+         * Get the number of failed operations
+         * 
+         * @return The failed count
+         */
+        public long getFailed() {
+            return failed.sum();
+        }
+        
+        /**
+         * Get the average operation latency
+         * 
+         * @return The average latency in milliseconds
+         */
+        public double getAverageMillis() {
+            long count = completed.sum();
+            return count > 0 ? totalNanos.sum() / (double) count / 1_000_000.0 : 0.0;
+        }
+        
+        /**
+         * Get the slowest operation latency
+         * 
+         * @return The maximum latency in milliseconds
+         */
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.mckenz.modemanager.storage;
+
+/**
+ * Operation types run on the I/O executor, each tracked with its own statistics
+ */
+public enum IoOperation {
+    PLAYER_DATA_LOAD("player-data-load", StorageTarget.PLAYER_DATA),
+    PLAYER_DATA_SAVE("player-data-save", StorageTarget.PLAYER_DATA),
+    INVENTORY_GROUP_LOAD("inventory-group-load", StorageTarget.PLAYER_DATA),
+    INVENTORY_GROUP_SAVE("inventory-group-save", StorageTarget.PLAYER_DATA),
+    SNAPSHOT_APPEND("snapshot-append", StorageTarget.PLAYER_DATA),
+    SNAPSHOT_READ("snapshot-read", StorageTarget.PLAYER_DATA),
+    CREATIVE_BLOCKS_SAVE("creative-blocks-save", StorageTarget.CREATIVE_BLOCKS),
+    CREATIVE_ITEM_FRAMES_SAVE("creative-item-frames-save", StorageTarget.CREATIVE_ITEM_FRAMES),
+    TEMPORARY_GRANTS_SAVE("temporary-grants-save", StorageTarget.TEMPORARY_GRANTS),
+    UPDATE_CHECK("update-check", StorageTarget.NETWORK);
+    
+    private final String displayName;
+    private final StorageTarget target;
+    
+    IoOperation(String displayName, StorageTarget target) {
+        this.displayName = displayName;
+        this.target = target;
+    }
+    
+    /**
+     * Get the name shown in statistics
+     * 
+     * @return The display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Get the storage target this operation uses
+     * 
+     * @return The storage target
+     */
+    public StorageTarget getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,147 @@
+package io.mckenz.modemanager.storage;
+
+import io.mckenz.modemanager.ModeManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Writes all plugin state to disk when the plugin is disabled.
+ * Everything is snapshotted on the calling thread first, then written in parallel on the
+ * I/O executor, bounded by its per-target concurrency and by an overall deadline.
+ */
+public class ShutdownFlush {
+    private static final int MAX_LISTED = 10;
+    
+    private final ModeManager plugin;
+    private final Map<String, CompletableFuture<Boolean>> writes = new LinkedHashMap<>();
+    private int playerWrites;
+    
+    /**
+     * Constructor for ShutdownFlush
+     * 
+     * @param plugin The plugin instance
+     */
+    public ShutdownFlush(ModeManager plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Snapshot all state, write it and wait until everything is written or the deadline passes
+     * 
+     * @param timeoutMillis The overall deadline in milliseconds
+     */
+    public void flush(long timeoutMillis) {
+        long start = System.nanoTime();
+        
+        // Snapshot everything before the first write starts
+        Map<UUID, BooleanSupplier> playerSnapshots = plugin.getPlayerDataManager() != null
+                ? plugin.getPlayerDataManager().snapshotAllPlayerData() : Map.of();
+        BooleanSupplier blocksSnapshot = plugin.getCreativeBlockManager() != null
+                ? plugin.getCreativeBlockManager().snapshotBlocks() : null;
+        BooleanSupplier itemFramesSnapshot = plugin.getCreativeItemFrameManager() != null
+                ? plugin.getCreativeItemFrameManager().snapshotItemFrames() : null;
+        BooleanSupplier grantsSnapshot = plugin.getGrantService() != null
+                ? plugin.getGrantService().snapshotGrants() : null;
+        
+        // The tracking stores go first so a slow player flush never holds them back
+        submit("creative blocks", IoOperation.CREATIVE_BLOCKS_SAVE, blocksSnapshot);
+        submit("creative item frames", IoOperation.CREATIVE_ITEM_FRAMES_SAVE, itemFramesSnapshot);
+        submit("temporary grants", IoOperation.TEMPORARY_GRANTS_SAVE, grantsSnapshot);
+        for (Map.Entry<UUID, BooleanSupplier> entry : playerSnapshots.entrySet()) {
+            submit("player " + entry.getKey(), IoOperation.PLAYER_DATA_SAVE, entry.getValue());
+            playerWrites++;
+        }
+        
+        awaitAll(timeoutMillis);
+        report(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), timeoutMillis);
+    }
+    
+    /**
+     * Submit one snapshot write to the I/O executor
+     * 
+     * @param label The label used when reporting the write
+     * @param operation The I/O operation type
+     * @param snapshot The snapshot write, or null if there is nothing to write
+     */
+    private void submit(String label, IoOperation operation, BooleanSupplier snapshot) {
+        if (snapshot != null) {
+            writes.put(label, plugin.getIoExecutor().submit(operation, snapshot::getAsBoolean));
+        }
+    }
+    
+    /**
+     * Wait for every write to finish or the deadline to pass
+     * 
+     * @param timeoutMillis The deadline in milliseconds
+     */
+    private void awaitAll(long timeoutMillis) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(writes.values().toArray(new CompletableFuture[0]));
+        
+        try {
+            all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Reported below
+        } catch (ExecutionException e) {
+            // Failed writes are reported below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Log what was flushed, what failed and what was left behind
+     * 
+     * @param elapsedMillis The time spent flushing in milliseconds
+     * @param timeoutMillis The deadline in milliseconds
+     */
+    private void report(long elapsedMillis, long timeoutMillis) {
+        int flushed = 0;
+        List<String> failed = new ArrayList<>();
+        List<String> pending = new ArrayList<>();
+        
+        for (Map.Entry<String, CompletableFuture<Boolean>> entry : writes.entrySet()) {
+            CompletableFuture<Boolean> write = entry.getValue();
+            if (!write.isDone()) {
+                pending.add(entry.getKey());
+            } else if (!write.isCompletedExceptionally() && write.join()) {
+                flushed++;
+            } else {
+                failed.add(entry.getKey());
+            }
+        }
+        
+        plugin.getLogger().info("Shutdown flush wrote " + flushed + " of " + writes.size() + " files (" + playerWrites
+                + " player files, " + (writes.size() - playerWrites) + " tracking stores) in " + elapsedMillis + "ms");
+        
+        if (!failed.isEmpty()) {
+            plugin.getLogger().severe("Failed to write " + failed.size() + " files during shutdown: " + describe(failed));
+        }
+        
+        if (!pending.isEmpty()) {
+            plugin.getLogger().severe("Shutdown flush deadline of " + timeoutMillis + "ms passed, " + pending.size()
+                    + " files were left behind: " + describe(pending));
+        }
+    }
+    
+    /**
+     * Describe a list of labels, listing at most a few
+     * 
+     * @param labels The labels
+     * @return The description
+     */
+    private static String describe(List<String> labels) {
+        if (labels.size() <= MAX_LISTED) {
+            return String.join(", ", labels);
+        }
+        return String.join(", ", labels.subList(0, MAX_LISTED)) + " and " + (labels.size() - MAX_LISTED) + " more";
+    }
+}
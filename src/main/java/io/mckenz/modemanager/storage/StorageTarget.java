@@ -0,0 +1,38 @@
+package io.mckenz.modemanager.storage;
+
+/**
+ * Storage targets with their own concurrency limit in the I/O executor
+ */
+public enum StorageTarget {
+    PLAYER_DATA("player-data", 4),
+    CREATIVE_BLOCKS("creative-blocks", 1),
+    CREATIVE_ITEM_FRAMES("creative-item-frames", 1),
+    TEMPORARY_GRANTS("temporary-grants", 1),
+    NETWORK("network", 1);
+    
+    private final String configKey;
+    private final int defaultConcurrency;
+    
+    StorageTarget(String configKey, int defaultConcurrency) {
+        this.configKey = configKey;
+        this.defaultConcurrency = defaultConcurrency;
+    }
+    
+    /**
+     * Get the key of this target under performance.io-concurrency
+     * 
+     * @return The config key
+     */
+    public String getConfigKey() {
+        return configKey;
+    }
+    
+    /**
+     * Get the number of concurrent operations allowed when the config does not set one
+     * 
+     * @return The default concurrency
+     */
+    public int getDefaultConcurrency() {
+        return defaultConcurrency;
+    }
+}
@@ -0,0 +1,300 @@
+package io.mckenz.modemanager.storage;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes YAML data files so that a crash never leaves a half-written file behind.
+ * Files are written to a temporary file, synced to disk and renamed over the old file, and end
+ * with a checksum line. The previous generations are kept as &lt;name&gt;.1, &lt;name&gt;.2, ...
+ * and a file that fails its checksum or does not parse is replaced by the newest valid generation.
+ */
+public class YamlStore {
+    private static final String CHECKSUM_PREFIX = "# crc32: ";
+    
+    private final Logger logger;
+    private final int backups;
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder unverified = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+    
+    /**
+     * Constructor for YamlStore
+     * 
+     * @param logger The logger
+     * @param backups The number of previous generations to keep
+     */
+    public YamlStore(Logger logger, int backups) {
+        this.logger = logger;
+        this.backups = Math.max(0, backups);
+    }
+    
+    /**
+     * Write a configuration to a file atomically, keeping the previous generations
+     * 
+     * @param config The configuration
+     * @param file The file
+     * @throws IOException If the file could not be written
+     */
+    public void save(YamlConfiguration config, File file) throws IOException {
+        String content = config.saveToString();
+        byte[] bytes = (content + CHECKSUM_PREFIX + checksum(content) + "\n").getBytes(StandardCharsets.UTF_8);
+        
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        Files.createDirectories(target.getParent());
+        
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        
+        rotateGenerations(target);
+        replace(temp, target);
+    }
+    
+    /**
+     * Load a configuration from a file, recovering from the newest valid generation if it is corrupt
+     * 
+     * @param file The file
+     * @return The configuration, or null if neither the file nor a valid generation exists
+     */
+    public YamlConfiguration load(File file) {
+        Path target = file.toPath();
+        boolean found = false;
+        
+        for (int generation = 0; generation <= backups; generation++) {
+            Path path = generation(target, generation);
+            if (!Files.exists(path)) {
+                continue;
+            }
+            found = true;
+            
+            YamlConfiguration config = read(path, generation);
+            if (config == null) {
+                continue;
+            }
+            
+            if (generation > 0) {
+                restore(path, target);
+                recovered.increment();
+                logger.warning("Recovered " + file.getName() + " from backup generation " + generation);
+            }
+            return config;
+        }
+        
+        if (found) {
+            quarantine(target);
+            lost.increment();
+            logger.severe("No valid copy of " + file.getName() + " was found, starting with empty data");
+        }
+        return null;
+    }
+    
+    /**
+     * Get the number of files loaded with a valid checksum
+     * 
+     * @return The verified count
+     */
+    public long getVerified() {
+        return verified.sum();
+    }
+    
+    /**
+     * Get the number of files loaded without a checksum, written before checksums were added
+     * 
+     * @return The unverified count
+     */
+    public long getUnverified() {
+        return unverified.sum();
+    }
+    
+    /**
+     * Get the number of corrupt files recovered from a backup generation
+     * 
+     * @return The recovered count
+     */
+    public long getRecovered() {
+        return recovered.sum();
+    }
+    
+    /**
+     * Get the number of corrupt files without any valid generation
+     * 
+     * @return The lost count
+     */
+    public long getLost() {
+        return lost.sum();
+    }
+    
+    /**
+     * Read and verify one generation of a file
+     * 
+     * @param path The generation path
+     * @param generation The generation number, 0 for the current file
+     * @return The configuration, or null if the generation is corrupt
+     */
+    private YamlConfiguration read(Path path, int generation) {
+        String text;
+        try {
+            text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warning("Failed to read " + path.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+        
+        boolean checked = false;
+        int trailer = text.lastIndexOf(CHECKSUM_PREFIX);
+        if (trailer >= 0) {
+            String content = text.substring(0, trailer);
+            String expected = text.substring(trailer + CHECKSUM_PREFIX.length()).trim();
+            if (!expected.equals(checksum(content))) {
+                logger.warning("Checksum mismatch in " + path.getFileName());
+                return null;
+            }
+            text = content;
+            checked = true;
+        }
+        
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(text);
+        } catch (InvalidConfigurationException e) {
+            logger.warning("Failed to parse " + path.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+        
+        // Only count the file actually used, not the backups checked on the way
+        if (generation == 0) {
+            if (checked) {
+                verified.increment();
+            } else {
+                unverified.increment();
+            }
+        }
+        return config;
+    }
+    
+    /**
+     * Shift the kept generations up by one and keep the current file as generation 1
+     * 
+     * @param target The current file
+     * @throws IOException If a generation could not be moved
+     */
+    private void rotateGenerations(Path target) throws IOException {
+        if (backups == 0 || !Files.exists(target)) {
+            return;
+        }
+        
+        for (int generation = backups - 1; generation >= 1; generation--) {
+            Path source = generation(target, generation);
+            if (Files.exists(source)) {
+                Files.move(source, generation(target, generation + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        
+        // A hard link keeps the old contents without copying them; the rename below
+        // only replaces the directory entry of the current file
+        Path first = generation(target, 1);
+        Files.deleteIfExists(first);
+        try {
+            Files.createLink(first, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, first, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Replace a corrupt file with a valid generation
+     * 
+     * @param source The valid generation
+     * @param target The corrupt file
+     */
+    private void restore(Path source, Path target) {
+        quarantine(target);
+        
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            replace(temp, target);
+        } catch (IOException e) {
+            logger.warning("Failed to restore " + target.getFileName() + " from " + source.getFileName() + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Move a corrupt file aside so it is not rotated into the backup generations
+     * 
+     * @param target The corrupt file
+     */
+    private void quarantine(Path target) {
+        if (!Files.exists(target)) {
+            return;
+        }
+        
+        Path corrupt = target.resolveSibling(target.getFileName() + ".corrupt");
+        try {
+            Files.move(target, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            logger.warning("Moved corrupt file to " + corrupt.getFileName());
+        } catch (IOException e) {
+            logger.warning("Failed to move corrupt file " + target.getFileName() + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Rename a file over another, atomically where the file system supports it
+     * 
+     * @param source The file to move
+     * @param target The file to replace
+     * @throws IOException If the file could not be moved
+     */
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Get the path of a generation of a file
+     * 
+     * @param target The current file
+     * @param generation The generation number, 0 for the current file
+     * @return The generation path
+     */
+    private static Path generation(Path target, int generation) {
+        return generation == 0 ? target : target.resolveSibling(target.getFileName() + "." + generation);
+    }
+    
+    /**
+     * Compute the checksum of file contents
+     * 
+     * @param content The file contents
+     * @return The checksum as hex
+     */
+    private static String checksum(String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+}
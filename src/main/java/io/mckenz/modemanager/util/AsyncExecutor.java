@@ -0,0 +1,132 @@
+package io.mckenz.modemanager.util;
+
+import io.mckenz.modemanager.ModeManager;
+import io.mckenz.modemanager.storage.IoOperation;
+import org.bukkit.entity.Entity;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executor used to complete the asynchronous API.
+ * Runs on a dedicated thread pool sized by performance.async-threads, or on the
+ * Bukkit asynchronous scheduler when that is set to 0.
+ */
+public class AsyncExecutor {
+    private final ModeManager plugin;
+    private final ExecutorService pool;
+    private final Executor executor;
+    
+    /**
+     * Constructor for AsyncExecutor
+     * 
+     * @param plugin The plugin instance
+     */
+    public AsyncExecutor(ModeManager plugin) {
+        this.plugin = plugin;
+        
+        int threads = plugin.getConfig().getInt("performance.async-threads", 2);
+        if (threads > 0) {
+            this.pool = Executors.newFixedThreadPool(threads, new NamedThreadFactory());
+            this.executor = pool;
+            plugin.logDebug("Async API executor started with " + threads + " threads");
+        } else {
+            this.pool = null;
+            this.executor = task -> plugin.getScheduler().runAsync(task);
+            plugin.logDebug("Async API executor is using the server's async scheduler");
+        }
+    }
+    
+    /**
+     * Get the executor that asynchronous API calls complete on
+     * 
+     * @return The executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Run an I/O task on the I/O executor and complete the result on this executor
+     * 
+     * @param operation The I/O operation type
+     * @param task The task to run
+     * @param <T> The result type
+     * @return A future completed with the task's result
+     */
+    public <T> CompletableFuture<T> supplyIo(IoOperation operation, Callable<T> task) {
+        return plugin.getIoExecutor().submit(operation, task).thenApplyAsync(Function.identity(), executor);
+    }
+    
+    /**
+     * Run a task on the thread owning an entity, which is the main thread outside Folia.
+     * Runs immediately when already called from that thread.
+     * 
+     * @param entity The entity the task works on
+     * @param task The task to run
+     * @param retiredValue The result if the entity is removed before the task runs
+     * @param <T> The result type
+     * @return A future completed with the task's result
+     */
+    public <T> CompletableFuture<T> supplyForEntity(Entity entity, Supplier<T> task, T retiredValue) {
+        if (plugin.getScheduler().isOwnedByCurrentThread(entity)) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        
+        CompletableFuture<T> future = new CompletableFuture<>();
+        plugin.getScheduler().runForEntity(entity, () -> {
+            try {
+                future.complete(task.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, () -> future.complete(retiredValue), 0L);
+        return future;
+    }
+    
+    /**
+     * Stop the thread pool, waiting briefly for running tasks
+     */
+    public void shutdown() {
+        if (pool == null) {
+            return;
+        }
+        
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Async API tasks did not finish in time and were cancelled");
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Thread factory naming the pool threads and marking them as daemons
+     */
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ModeManager-Async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
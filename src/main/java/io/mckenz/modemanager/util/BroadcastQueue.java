@@ -0,0 +1,260 @@
+package io.mckenz.modemanager.util;
+
+import io.mckenz.modemanager.ModeManager;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queues broadcasts and delivers them from a repeating task.
+ * Broadcasts of the same message queued during one tick are merged into a single
+ * "&lt;key&gt;-merged" message when one is configured, and at most a configured number
+ * of recipients are sent a message per tick.
+ */
+public class BroadcastQueue {
+    private static final String MERGED_SUFFIX = "-merged";
+    
+    private final ModeManager plugin;
+    private final MessageUtil messageUtil;
+    private final Queue<PendingBroadcast> pending = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Delivery> deliveries = new ArrayDeque<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong mergedTotal = new AtomicLong();
+    private volatile int queuedDeliveries;
+    private volatile int queuedRecipients;
+    private volatile int recipientsPerTick;
+    private SchedulerAdapter.Task task;
+    
+    /**
+     * Constructor for BroadcastQueue
+     * 
+     * @param plugin The plugin instance
+     * @param messageUtil The message utility used to look up templates
+     * @param recipientsPerTick The maximum number of recipients per tick, or 0 for no limit
+     */
+    public BroadcastQueue(ModeManager plugin, MessageUtil messageUtil, int recipientsPerTick) {
+        this.plugin = plugin;
+        this.messageUtil = messageUtil;
+        this.recipientsPerTick = recipientsPerTick;
+    }
+    
+    /**
+     * Start the delivery task
+     */
+    public void start() {
+        if (task == null) {
+            task = plugin.getScheduler().runGlobalTimer(this::tick, 1L, 1L);
+        }
+    }
+    
+    /**
+     * Stop the delivery task and deliver everything still queued
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        
+        drainPending();
+        deliver(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Set the maximum number of recipients sent a message per tick
+     * 
+     * @param recipientsPerTick The maximum number of recipients per tick, or 0 for no limit
+     */
+    public void setRecipientsPerTick(int recipientsPerTick) {
+        this.recipientsPerTick = recipientsPerTick;
+    }
+    
+    /**
+     * Queue a broadcast for delivery on the next tick
+     * 
+     * @param messageKey The message key in the config
+     * @param args The placeholder values
+     */
+    public void enqueue(String messageKey, MessageArgs args) {
+        pending.add(new PendingBroadcast(messageKey, args));
+        pendingCount.incrementAndGet();
+    }
+    
+    /**
+     * Get the number of broadcasts waiting to be delivered, including partly delivered ones
+     * 
+     * @return The broadcast backlog
+     */
+    public int getBacklog() {
+        return pendingCount.get() + queuedDeliveries;
+    }
+    
+    /**
+     * Get the number of recipients still waiting for a queued broadcast
+     * 
+     * @return The recipient backlog
+     */
+    public int getRecipientBacklog() {
+        return queuedRecipients;
+    }
+    
+    /**
+     * Get the number of broadcasts folded into merged messages since startup
+     * 
+     * @return The number of merged broadcasts
+     */
+    public long getMergedTotal() {
+        return mergedTotal.get();
+    }
+    
+    /**
+     * Run one delivery tick
+     */
+    private void tick() {
+        drainPending();
+        
+        int budget = recipientsPerTick;
+        deliver(budget > 0 ? budget : Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Turn the broadcasts queued since the last tick into deliveries, merging repeated keys
+     */
+    private void drainPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        Map<String, List<MessageArgs>> byKey = new LinkedHashMap<>();
+        PendingBroadcast broadcast;
+        while ((broadcast = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            byKey.computeIfAbsent(broadcast.messageKey, key -> new ArrayList<>()).add(broadcast.args);
+        }
+        
+        for (Map.Entry<String, List<MessageArgs>> entry : byKey.entrySet()) {
+            List<MessageArgs> argsList = entry.getValue();
+            MessageTemplate merged = argsList.size() > 1 ? messageUtil.lookupTemplate(entry.getKey() + MERGED_SUFFIX) : null;
+            
+            if (merged != null) {
+                addDelivery(merged, MessageUtil.args(Placeholder.COUNT, String.valueOf(argsList.size())));
+                mergedTotal.addAndGet(argsList.size());
+                plugin.logDebug("Merged " + argsList.size() + " broadcasts of " + entry.getKey());
+                continue;
+            }
+            
+            MessageTemplate template = messageUtil.lookupTemplate(entry.getKey());
+            if (template == null) {
+                plugin.logDebug("Message key not found: " + entry.getKey());
+                continue;
+            }
+            
+            for (MessageArgs args : argsList) {
+                addDelivery(template, args);
+            }
+        }
+        
+        updateMetrics();
+    }
+    
+    /**
+     * Render a broadcast once and queue it for every online player
+     * 
+     * @param template The message template
+     * @param args The placeholder values
+     */
+    private void addDelivery(MessageTemplate template, MessageArgs args) {
+        String text = template.render(args);
+        BaseComponent[] components = template.isActionBar() ? template.renderComponents(args) : null;
+        
+        // Console gets the regular message straight away
+        plugin.getServer().getConsoleSender().sendMessage(text);
+        
+        List<Player> recipients = new ArrayList<>(plugin.getServer().getOnlinePlayers());
+        if (!recipients.isEmpty()) {
+            deliveries.add(new Delivery(text, components, recipients));
+        }
+    }
+    
+    /**
+     * Send queued deliveries until the budget is used up
+     * 
+     * @param budget The maximum number of recipients to send to
+     */
+    private void deliver(int budget) {
+        while (budget > 0 && !deliveries.isEmpty()) {
+            Delivery delivery = deliveries.peek();
+            
+            while (budget > 0 && delivery.next < delivery.recipients.size()) {
+                Player player = delivery.recipients.get(delivery.next++);
+                if (!player.isOnline()) {
+                    continue;
+                }
+                
+                if (delivery.components != null) {
+                    player.spigot().sendMessage(ChatMessageType.ACTION_BAR, delivery.components);
+                } else {
+                    player.sendMessage(delivery.text);
+                }
+                budget--;
+            }
+            
+            if (delivery.next >= delivery.recipients.size()) {
+                deliveries.poll();
+            }
+        }
+        
+        updateMetrics();
+    }
+    
+    /**
+     * Publish the delivery backlog for readers on other threads
+     */
+    private void updateMetrics() {
+        int recipients = 0;
+        for (Delivery delivery : deliveries) {
+            recipients += delivery.recipients.size() - delivery.next;
+        }
+        queuedDeliveries = deliveries.size();
+        queuedRecipients = recipients;
+    }
+    
+    /**
+     * A broadcast waiting for the next tick
+     */
+    private static final class PendingBroadcast {
+        private final String messageKey;
+        private final MessageArgs args;
+        
+        private PendingBroadcast(String messageKey, MessageArgs args) {
+            this.messageKey = messageKey;
+            this.args = args;
+        }
+    }
+    
+    /**
+     * A rendered broadcast and the recipients it still has to reach
+     */
+    private static final class Delivery {
+        private final String text;
+        private final BaseComponent[] components;
+        private final List<Player> recipients;
+        private int next;
+        
+        private Delivery(String text, BaseComponent[] components, List<Player> recipients) {
+            this.text = text;
+            this.components = components;
+            this.recipients = recipients;
+        }
+    }
+}
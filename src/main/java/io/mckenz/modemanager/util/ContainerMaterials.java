@@ -0,0 +1,75 @@
+package io.mckenz.modemanager.util;
+
+import org.bukkit.Material;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Shared set of materials that are treated as containers by the protection listeners
+ */
+public final class ContainerMaterials {
+    private static final Set<Material> CONTAINERS = Collections.unmodifiableSet(initContainerMaterials());
+    
+    private ContainerMaterials() {
+    }
+    
+    /**
+     * Initialize the set of container materials
+     * 
+     * @return Set of container materials
+     */
+    private static Set<Material> initContainerMaterials() {
+        Set<Material> containers = EnumSet.noneOf(Material.class);
+        
+        // Add all chest types
+        containers.add(Material.CHEST);
+        containers.add(Material.TRAPPED_CHEST);
+        containers.add(Material.ENDER_CHEST);
+        containers.add(Material.BARREL);
+        
+        // Add all shulker box types
+        for (Material material : Material.values()) {
+            if (material.name().endsWith("SHULKER_BOX")) {
+                containers.add(material);
+            }
+        }
+        
+        // Add furnace types
+        containers.add(Material.FURNACE);
+        containers.add(Material.BLAST_FURNACE);
+        containers.add(Material.SMOKER);
+        
+        // Add other container types
+        containers.add(Material.DISPENSER);
+        containers.add(Material.DROPPER);
+        containers.add(Material.HOPPER);
+        containers.add(Material.BREWING_STAND);
+        
+        // Add additional container types
+        containers.add(Material.LECTERN);
+        containers.add(Material.COMPOSTER);
+        containers.add(Material.CAULDRON);
+        containers.add(Material.LAVA_CAULDRON);
+        containers.add(Material.WATER_CAULDRON);
+        containers.add(Material.POWDER_SNOW_CAULDRON);
+        containers.add(Material.BEEHIVE);
+        containers.add(Material.BEE_NEST);
+        containers.add(Material.CAMPFIRE);
+        containers.add(Material.SOUL_CAMPFIRE);
+        containers.add(Material.JUKEBOX);
+        
+        return containers;
+    }
+    
+    /**
+     * Check if a material is a container
+     * 
+     * @param material The material to check
+     * @return True if the material is a container, false otherwise
+     */
+    public static boolean isContainer(Material material) {
+        return CONTAINERS.contains(material);
+    }
+}
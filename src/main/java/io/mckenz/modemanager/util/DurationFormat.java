@@ -0,0 +1,122 @@
+package io.mckenz.modemanager.util;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Parses and formats durations written as a number followed by a unit, such as 90s, 30m, 2h or 1d12h
+ */
+public final class DurationFormat {
+    /**
+     * The longest duration accepted, well below where converting to milliseconds or adding to the current time overflows
+     */
+    public static final Duration MAX = Duration.ofDays(3650);
+    
+    private DurationFormat() {
+    }
+    
+    /**
+     * Parse a duration such as 90s, 30m, 2h, 1d or 1h30m; a number without a unit is read as seconds
+     * 
+     * @param text The text to parse
+     * @return The duration, or null if the text is not a valid positive duration of at most {@link #MAX}
+     */
+    public static Duration parse(String text) {
+        String input = text.trim().toLowerCase(Locale.ROOT);
+        if (input.isEmpty()) {
+            return null;
+        }
+        
+        long seconds = 0;
+        long number = -1;
+        try {
+            for (int i = 0; i < input.length(); i++) {
+                char c = input.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    number = Math.addExact(Math.multiplyExact(Math.max(number, 0), 10), c - '0');
+                    continue;
+                }
+                
+                if (number < 0) {
+                    return null;
+                }
+                
+                long unit = unitSeconds(c);
+                if (unit <= 0) {
+                    return null;
+                }
+                seconds = Math.addExact(seconds, Math.multiplyExact(number, unit));
+                number = -1;
+            }
+            
+            if (number >= 0) {
+                seconds = Math.addExact(seconds, number);
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        
+        return seconds > 0 && seconds <= MAX.getSeconds() ? Duration.ofSeconds(seconds) : null;
+    }
+    
+    /**
+     * Format a duration as days, hours, minutes and seconds, for example 1d 2h 5m
+     * 
+     * @param duration The duration
+     * @return The formatted duration
+     */
+    public static String format(Duration duration) {
+        long seconds = Math.max(0L, duration.getSeconds());
+        if (seconds == 0) {
+            return "0s";
+        }
+        
+        StringBuilder builder = new StringBuilder();
+        append(builder, seconds / 86400L, 'd');
+        append(builder, seconds % 86400L / 3600L, 'h');
+        append(builder, seconds % 3600L / 60L, 'm');
+        append(builder, seconds % 60L, 's');
+        return builder.toString();
+    }
+    
+    /**
+     * Get the length of a duration unit
+     * 
+     * @param unit The unit letter
+     * @return The length in seconds, or 0 for an unknown unit
+     */
+    private static long unitSeconds(char unit) {
+        switch (unit) {
+            case 's':
+                return 1L;
+            case 'm':
+                return 60L;
+            case 'h':
+                return 3600L;
+            case 'd':
+                return 86400L;
+            case 'w':
+                return 604800L;
+            default:
+                return 0L;
+        }
+    }
+    
+    /**
+     * Append one unit of a formatted duration if it is not zero
+     * 
+     * @param builder The builder
+     * @param value The value of the unit
+     * @param unit The unit letter
+     */
+    private static void append(StringBuilder builder, long value, char unit) {
+        if (value == 0) {
+            return;
+        }
+        
+        if (builder.length() > 0) {
+            builder.append(' ');
+        }
+        builder.append(value).append(unit);
+    }
+}
@@ -0,0 +1,73 @@
+package io.mckenz.modemanager.util;
+
+import java.util.Arrays;
+
+/**
+ * Placeholder values for rendering a {@link MessageTemplate}.
+ * Only the placeholders that were set are stored, as (placeholder, value) pairs;
+ * a template looks up each of its own placeholder slots in them when rendering.
+ */
+public final class MessageArgs {
+    private static final int INITIAL_CAPACITY = 4;
+    
+    private Placeholder[] placeholders;
+    private String[] values;
+    private int size;
+    
+    private MessageArgs(int capacity) {
+        this.placeholders = new Placeholder[capacity];
+        this.values = new String[capacity];
+    }
+    
+    /**
+     * Create placeholder values starting with one placeholder
+     * 
+     * @param placeholder The placeholder
+     * @param value The placeholder value
+     * @return The placeholder values
+     */
+    public static MessageArgs of(Placeholder placeholder, String value) {
+        return new MessageArgs(INITIAL_CAPACITY).with(placeholder, value);
+    }
+    
+    /**
+     * Add a placeholder value, replacing any value already set for the placeholder
+     * 
+     * @param placeholder The placeholder
+     * @param value The placeholder value
+     * @return These placeholder values
+     */
+    public MessageArgs with(Placeholder placeholder, String value) {
+        for (int i = 0; i < size; i++) {
+            if (placeholders[i] == placeholder) {
+                values[i] = value;
+                return this;
+            }
+        }
+        
+        if (size == placeholders.length) {
+            placeholders = Arrays.copyOf(placeholders, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        
+        placeholders[size] = placeholder;
+        values[size] = value;
+        size++;
+        return this;
+    }
+    
+    /**
+     * Get the value of a placeholder
+     * 
+     * @param placeholder The placeholder
+     * @return The value, or null if the placeholder was not set
+     */
+    public String get(Placeholder placeholder) {
+        for (int i = 0; i < size; i++) {
+            if (placeholders[i] == placeholder) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+}
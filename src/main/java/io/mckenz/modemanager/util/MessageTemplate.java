@@ -0,0 +1,121 @@
+package io.mckenz.modemanager.util;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A configured message parsed into literal and placeholder segments.
+ * Colors and the prefix are applied once when the template is compiled,
+ * so rendering only concatenates segments with the supplied arguments.
+ */
+public final class MessageTemplate {
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+    private final boolean actionBar;
+    private final int literalLength;
+    private final BaseComponent[] components;
+    
+    private MessageTemplate(String[] literals, Placeholder[] placeholders, boolean actionBar) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.actionBar = actionBar;
+        
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+        
+        // Static action bar messages keep their components so sending them never re-parses the text
+        this.components = placeholders.length == 0 && actionBar ? TextComponent.fromLegacyText(literals[0]) : null;
+    }
+    
+    /**
+     * Compile a message into a template
+     * 
+     * @param text The message text with prefix applied and colors already translated
+     * @param actionBar Whether the message is sent to the action bar
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String text, boolean actionBar) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        
+        int index = 0;
+        while (index < text.length()) {
+            int start = text.indexOf('%', index);
+            if (start < 0) {
+                break;
+            }
+            
+            int end = text.indexOf('%', start + 1);
+            if (end < 0) {
+                break;
+            }
+            
+            Placeholder placeholder = Placeholder.byName(text.substring(start + 1, end));
+            if (placeholder == null) {
+                // Not a known placeholder, keep the first percent sign as literal text
+                literal.append(text, index, start + 1);
+                index = start + 1;
+                continue;
+            }
+            
+            literal.append(text, index, start);
+            literals.add(literal.toString());
+            placeholders.add(placeholder);
+            literal.setLength(0);
+            index = end + 1;
+        }
+        
+        literal.append(text, index, text.length());
+        literals.add(literal.toString());
+        
+        return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]), actionBar);
+    }
+    
+    /**
+     * Check if the message should be sent to the action bar
+     * 
+     * @return True if the message goes to the action bar, false for chat
+     */
+    public boolean isActionBar() {
+        return actionBar;
+    }
+    
+    /**
+     * Render the template
+     * 
+     * @param args The placeholder values, may be null for static messages
+     * @return The rendered message
+     */
+    public String render(MessageArgs args) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+        
+        StringBuilder builder = new StringBuilder(literalLength + placeholders.length * 16);
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]);
+            String value = args != null ? args.get(placeholders[i]) : null;
+            builder.append(value != null ? value : placeholders[i].getToken());
+        }
+        builder.append(literals[placeholders.length]);
+        
+        return builder.toString();
+    }
+    
+    /**
+     * Render the template as chat components
+     * 
+     * @param args The placeholder values, may be null for static messages
+     * @return The rendered components
+     */
+    public BaseComponent[] renderComponents(MessageArgs args) {
+        return components != null ? components : TextComponent.fromLegacyText(render(args));
+    }
+}
@@ -0,0 +1,95 @@
+package io.mckenz.modemanager.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-player, per-message-key throttle for protection denial messages.
+ * The first denial in a window is sent, repeats inside the window are only counted.
+ */
+public class MessageThrottle {
+    private final Map<UUID, Map<String, Window>> windows = new ConcurrentHashMap<>();
+    private final AtomicLong suppressedTotal = new AtomicLong();
+    private volatile long windowNanos;
+    
+    /**
+     * Constructor for MessageThrottle
+     * 
+     * @param windowMillis The throttle window in milliseconds, 0 to disable throttling
+     */
+    public MessageThrottle(long windowMillis) {
+        setWindowMillis(windowMillis);
+    }
+    
+    /**
+     * Set the throttle window
+     * 
+     * @param windowMillis The throttle window in milliseconds, 0 to disable throttling
+     */
+    public void setWindowMillis(long windowMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+    }
+    
+    /**
+     * Record a denial and check if its message should be sent
+     * 
+     * @param playerUuid The player UUID
+     * @param messageKey The message key
+     * @return True if the message should be sent, false if it was throttled
+     */
+    public boolean tryAcquire(UUID playerUuid, String messageKey) {
+        if (windowNanos == 0) {
+            return true;
+        }
+        
+        long now = System.nanoTime();
+        Map<String, Window> playerWindows = windows.computeIfAbsent(playerUuid, uuid -> new HashMap<>());
+        Window window = playerWindows.get(messageKey);
+        
+        if (window == null) {
+            playerWindows.put(messageKey, new Window(now));
+            return true;
+        }
+        
+        if (now - window.start >= windowNanos) {
+            window.start = now;
+            return true;
+        }
+        
+        suppressedTotal.incrementAndGet();
+        return false;
+    }
+    
+    /**
+     * Get the total number of messages suppressed since startup
+     * 
+     * @return The total number of suppressed messages
+     */
+    public long getSuppressedTotal() {
+        return suppressedTotal.get();
+    }
+    
+    /**
+     * Forget all throttle windows of a player
+     * 
+     * @param playerUuid The player UUID
+     */
+    public void clear(UUID playerUuid) {
+        windows.remove(playerUuid);
+    }
+    
+    /**
+     * Throttle window state for one player and message key
+     */
+    private static final class Window {
+        private long start;
+        
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package io.mckenz.modemanager.util;
 
 import io.mckenz.modemanager.ModeManager;
+import net.md_5.bungee.api.ChatMessageType;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
- * Utility class for handling messages
+ * Utility class for handling messages.
+ * Every message under messages.* is compiled into a {@link MessageTemplate} when the config is loaded.
  */
 public class MessageUtil {
     private final ModeManager plugin;
+    private final MessageThrottle denialThrottle;
+    private final BroadcastQueue broadcastQueue;
+    private volatile Map<String, MessageTemplate> templates = Collections.emptyMap();
+    private volatile Map<String, MessageTemplate> templatesWithoutPrefix = Collections.emptyMap();
     
     /**
      * Constructor for MessageUtil
@@ -21,103 +30,209 @@ public class MessageUtil {
      */
     public MessageUtil(ModeManager plugin) {
         this.plugin = plugin;
+        this.denialThrottle = new MessageThrottle(getDenialWindowMillis());
+        compileTemplates();
+        this.broadcastQueue = new BroadcastQueue(plugin, this, getBroadcastRecipientsPerTick());
+        this.broadcastQueue.start();
     }
     
     /**
-     * Send a message to a player
-     * 
-     * @param sender The command sender
-     * @param messageKey The message key in the config
+     * Reload message settings from config
      */
-    public void sendMessage(CommandSender sender, String messageKey) {
-        sendMessage(sender, messageKey, new HashMap<>());
+    public void reload() {
+        denialThrottle.setWindowMillis(getDenialWindowMillis());
+        broadcastQueue.setRecipientsPerTick(getBroadcastRecipientsPerTick());
+        compileTemplates();
     }
     
     /**
-     * Send a message to a player with placeholders
-     * 
-     * @param sender The command sender
-     * @param messageKey The message key in the config
-     * @param placeholders The placeholders to replace
+     * Stop the broadcast queue, delivering anything still queued
      */
-    public void sendMessage(CommandSender sender, String messageKey, Map<String, String> placeholders) {
-        String message = getMessage(messageKey);
-        
-        if (message.isEmpty()) {
+    public void shutdown() {
+        broadcastQueue.stop();
+    }
+    
+    /**
+     * Compile every configured message into templates with and without the prefix
+     */
+    private void compileTemplates() {
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("messages");
+        if (section == null) {
+            plugin.getLogger().warning("No messages section found in config");
+            templates = Collections.emptyMap();
+            templatesWithoutPrefix = Collections.emptyMap();
             return;
         }
         
-        // Replace placeholders
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            message = message.replace("%" + entry.getKey() + "%", entry.getValue());
-        }
-        
-        // Check if this message should be sent to the action bar
-        boolean useActionBar = plugin.getConfig().getBoolean("messages.action-bar-messages." + messageKey, false);
+        String prefix = section.getString("prefix", "");
+        ConfigurationSection actionBarSection = section.getConfigurationSection("action-bar-messages");
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        Map<String, MessageTemplate> compiledWithoutPrefix = new HashMap<>();
         
-        if (useActionBar && sender instanceof Player) {
-            sendActionBar((Player) sender, colorize(message));
-        } else {
-            sender.sendMessage(colorize(message));
+        for (String messageKey : section.getKeys(false)) {
+            if (messageKey.equals("prefix") || !section.isString(messageKey)) {
+                continue;
+            }
+            
+            String message = section.getString(messageKey, "");
+            if (message.isEmpty()) {
+                continue;
+            }
+            
+            boolean actionBar = actionBarSection != null && actionBarSection.getBoolean(messageKey, false);
+            
+            // Add prefix if the message doesn't already have it and it's not an action bar message
+            String prefixed = message;
+            if (!message.startsWith(prefix) && !prefix.isEmpty() && !actionBar) {
+                prefixed = prefix + message;
+            }
+            
+            compiled.put(messageKey, MessageTemplate.compile(colorize(prefixed), actionBar));
+            compiledWithoutPrefix.put(messageKey, MessageTemplate.compile(colorize(message), actionBar));
         }
+        
+        templates = compiled;
+        templatesWithoutPrefix = compiledWithoutPrefix;
+        plugin.logDebug("Compiled " + compiled.size() + " message templates");
     }
     
     /**
-     * Send an action bar message to a player
+     * Get the denial message throttle window from config
+     * 
+     * @return The throttle window in milliseconds
+     */
+    private long getDenialWindowMillis() {
+        return plugin.getConfig().getLong("performance.denial-message-window-ms", 1500);
+    }
+    
+    /**
+     * Get the broadcast recipient budget per tick from config
+     * 
+     * @return The maximum number of broadcast recipients per tick, or 0 for no limit
+     */
+    private int getBroadcastRecipientsPerTick() {
+        return plugin.getConfig().getInt("performance.broadcast-recipients-per-tick", 100);
+    }
+    
+    /**
+     * Record a protection denial and check if its message should be sent.
+     * Repeated denials of the same key inside the throttle window are counted instead of sent.
      * 
      * @param player The player
-     * @param message The message to send
+     * @param messageKey The message key in the config
+     * @return True if the message should be sent, false if it was throttled
      */
-    public void sendActionBar(Player player, String message) {
-        player.spigot().sendMessage(net.md_5.bungee.api.ChatMessageType.ACTION_BAR, 
-                                   net.md_5.bungee.api.chat.TextComponent.fromLegacyText(message));
+    public boolean shouldSendDenial(Player player, String messageKey) {
+        return denialThrottle.tryAcquire(player.getUniqueId(), messageKey);
     }
     
     /**
-     * Send an action bar message to a player with placeholders
+     * Send a protection denial message to a player, subject to the denial throttle
      * 
      * @param player The player
      * @param messageKey The message key in the config
-     * @param placeholders The placeholders to replace
      */
-    public void sendActionBarMessage(Player player, String messageKey, Map<String, String> placeholders) {
-        String message = plugin.getConfig().getString("messages." + messageKey, "");
-        
-        if (message.isEmpty()) {
-            plugin.logDebug("Message key not found: " + messageKey);
-            return;
-        }
-        
-        // Replace placeholders
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            message = message.replace("%" + entry.getKey() + "%", entry.getValue());
+    public void sendDenialMessage(Player player, String messageKey) {
+        if (shouldSendDenial(player, messageKey)) {
+            sendMessage(player, messageKey);
         }
-        
-        sendActionBar(player, colorize(message));
     }
     
     /**
-     * Get a message from the config
+     * Get the denial message throttle
+     * 
+     * @return The denial message throttle
+     */
+    public MessageThrottle getDenialThrottle() {
+        return denialThrottle;
+    }
+    
+    /**
+     * Get the broadcast queue
+     * 
+     * @return The broadcast queue
+     */
+    public BroadcastQueue getBroadcastQueue() {
+        return broadcastQueue;
+    }
+    
+    /**
+     * Forget per-player message state, called when a player quits
+     * 
+     * @param playerUuid The player UUID
+     */
+    public void clearPlayer(UUID playerUuid) {
+        denialThrottle.clear(playerUuid);
+    }
+    
+    /**
+     * Send a message to a player
+     * 
+     * @param sender The command sender
+     * @param messageKey The message key in the config
+     */
+    public void sendMessage(CommandSender sender, String messageKey) {
+        send(sender, getTemplate(templates, messageKey), null);
+    }
+    
+    /**
+     * Send a message to a player with one placeholder
+     * 
+     * @param sender The command sender
+     * @param messageKey The message key in the config
+     * @param placeholder The placeholder to replace
+     * @param value The placeholder value
+     */
+    public void sendMessage(CommandSender sender, String messageKey, Placeholder placeholder, String value) {
+        send(sender, getTemplate(templates, messageKey), args(placeholder, value));
+    }
+    
+    /**
+     * Send a message to a player with two placeholders
+     * 
+     * @param sender The command sender
+     * @param messageKey The message key in the config
+     * @param placeholder1 The first placeholder to replace
+     * @param value1 The first placeholder value
+     * @param placeholder2 The second placeholder to replace
+     * @param value2 The second placeholder value
+     */
+    public void sendMessage(CommandSender sender, String messageKey, Placeholder placeholder1, String value1,
+                            Placeholder placeholder2, String value2) {
+        send(sender, getTemplate(templates, messageKey), args(placeholder1, value1, placeholder2, value2));
+    }
+    
+    /**
+     * Send a message to a player with placeholders
+     * 
+     * @param sender The command sender
+     * @param messageKey The message key in the config
+     * @param args The placeholder values
+     */
+    public void sendMessage(CommandSender sender, String messageKey, MessageArgs args) {
+        send(sender, getTemplate(templates, messageKey), args);
+    }
+    
+    /**
+     * Send an action bar message to a player
+     * 
+     * @param player The player
+     * @param message The message to send
+     */
+    public void sendActionBar(Player player, String message) {
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR,
+                                   net.md_5.bungee.api.chat.TextComponent.fromLegacyText(message));
+    }
+    
+    /**
+     * Get a message from the config with the prefix applied and colors translated
      * 
      * @param messageKey The message key in the config
-     * @return The message
+     * @return The message, or an empty string if the key does not exist
      */
     public String getMessage(String messageKey) {
-        String message = plugin.getConfig().getString("messages." + messageKey, "");
-        
-        if (message.isEmpty()) {
-            plugin.logDebug("Message key not found: " + messageKey);
-            return "";
-        }
-        
-        // Add prefix if the message doesn't already have it and it's not an action bar message
-        boolean isActionBarMessage = plugin.getConfig().getBoolean("messages.action-bar-messages." + messageKey, false);
-        String prefix = plugin.getConfig().getString("messages.prefix", "");
-        if (!message.startsWith(prefix) && !prefix.isEmpty() && !isActionBarMessage) {
-            message = prefix + message;
-        }
-        
-        return message;
+        MessageTemplate template = getTemplate(templates, messageKey);
+        return template != null ? template.render(null) : "";
     }
     
     /**
@@ -131,35 +246,15 @@ public class MessageUtil {
     }
     
     /**
-     * Broadcast a message to all players
+     * Broadcast a message to all players.
+     * The broadcast is queued and delivered on the next tick, merged with other
+     * broadcasts of the same key when a "&lt;key&gt;-merged" message is configured.
      * 
      * @param messageKey The message key in the config
-     * @param placeholders The placeholders to replace
+     * @param args The placeholder values
      */
-    public void broadcastMessage(String messageKey, Map<String, String> placeholders) {
-        String message = getMessage(messageKey);
-        
-        if (message.isEmpty()) {
-            return;
-        }
-        
-        // Replace placeholders
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            message = message.replace("%" + entry.getKey() + "%", entry.getValue());
-        }
-        
-        String finalMessage = colorize(message);
-        
-        // Check if this message should be sent to the action bar
-        boolean useActionBar = plugin.getConfig().getBoolean("messages.action-bar-messages." + messageKey, false);
-        
-        if (useActionBar) {
-            plugin.getServer().getOnlinePlayers().forEach(player -> sendActionBar(player, finalMessage));
-            plugin.getServer().getConsoleSender().sendMessage(finalMessage); // Console still gets regular message
-        } else {
-            plugin.getServer().getOnlinePlayers().forEach(player -> player.sendMessage(finalMessage));
-            plugin.getServer().getConsoleSender().sendMessage(finalMessage);
-        }
+    public void broadcastMessage(String messageKey, MessageArgs args) {
+        broadcastQueue.enqueue(messageKey, args);
     }
     
     /**
@@ -169,7 +264,19 @@ public class MessageUtil {
      * @param messageKey The message key in the config
      */
     public void sendMessageWithoutPrefix(CommandSender sender, String messageKey) {
-        sendMessageWithoutPrefix(sender, messageKey, new HashMap<>());
+        send(sender, getTemplate(templatesWithoutPrefix, messageKey), null);
+    }
+    
+    /**
+     * Send a message to a player with one placeholder but without adding the prefix
+     * 
+     * @param sender The command sender
+     * @param messageKey The message key in the config
+     * @param placeholder The placeholder to replace
+     * @param value The placeholder value
+     */
+    public void sendMessageWithoutPrefix(CommandSender sender, String messageKey, Placeholder placeholder, String value) {
+        send(sender, getTemplate(templatesWithoutPrefix, messageKey), args(placeholder, value));
     }
     
     /**
@@ -177,28 +284,93 @@ public class MessageUtil {
      * 
      * @param sender The command sender
      * @param messageKey The message key in the config
-     * @param placeholders The placeholders to replace
+     * @param args The placeholder values
      */
-    public void sendMessageWithoutPrefix(CommandSender sender, String messageKey, Map<String, String> placeholders) {
-        String message = plugin.getConfig().getString("messages." + messageKey, "");
-        
-        if (message.isEmpty()) {
+    public void sendMessageWithoutPrefix(CommandSender sender, String messageKey, MessageArgs args) {
+        send(sender, getTemplate(templatesWithoutPrefix, messageKey), args);
+    }
+    
+    /**
+     * Build placeholder values with one placeholder
+     * 
+     * @param placeholder The placeholder
+     * @param value The placeholder value
+     * @return The placeholder values
+     */
+    public static MessageArgs args(Placeholder placeholder, String value) {
+        return MessageArgs.of(placeholder, value);
+    }
+    
+    /**
+     * Build placeholder values with two placeholders
+     * 
+     * @param placeholder1 The first placeholder
+     * @param value1 The first placeholder value
+     * @param placeholder2 The second placeholder
+     * @param value2 The second placeholder value
+     * @return The placeholder values
+     */
+    public static MessageArgs args(Placeholder placeholder1, String value1, Placeholder placeholder2, String value2) {
+        return MessageArgs.of(placeholder1, value1).with(placeholder2, value2);
+    }
+    
+    /**
+     * Build placeholder values with three placeholders
+     * 
+     * @param placeholder1 The first placeholder
+     * @param value1 The first placeholder value
+     * @param placeholder2 The second placeholder
+     * @param value2 The second placeholder value
+     * @param placeholder3 The third placeholder
+     * @param value3 The third placeholder value
+     * @return The placeholder values
+     */
+    public static MessageArgs args(Placeholder placeholder1, String value1, Placeholder placeholder2, String value2,
+                                Placeholder placeholder3, String value3) {
+        return args(placeholder1, value1, placeholder2, value2).with(placeholder3, value3);
+    }
+    
+    /**
+     * Look up a compiled template with the prefix applied, without logging missing keys
+     * 
+     * @param messageKey The message key in the config
+     * @return The template, or null if the key does not exist
+     */
+    MessageTemplate lookupTemplate(String messageKey) {
+        return templates.get(messageKey);
+    }
+    
+    /**
+     * Look up a compiled template
+     * 
+     * @param source The template map to look in
+     * @param messageKey The message key in the config
+     * @return The template, or null if the key does not exist
+     */
+    private MessageTemplate getTemplate(Map<String, MessageTemplate> source, String messageKey) {
+        MessageTemplate template = source.get(messageKey);
+        if (template == null) {
             plugin.logDebug("Message key not found: " + messageKey);
-            return;
         }
-        
-        // Replace placeholders
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            message = message.replace("%" + entry.getKey() + "%", entry.getValue());
+        return template;
+    }
+    
+    /**
+     * Render and send a template to the chat or action bar
+     * 
+     * @param sender The command sender
+     * @param template The template, may be null if the key does not exist
+     * @param args The placeholder values, may be null for static messages
+     */
+    private void send(CommandSender sender, MessageTemplate template, MessageArgs args) {
+        if (template == null) {
+            return;
         }
         
-        // Check if this message should be sent to the action bar
-        boolean useActionBar = plugin.getConfig().getBoolean("messages.action-bar-messages." + messageKey, false);
-        
-        if (useActionBar && sender instanceof Player) {
-            sendActionBar((Player) sender, colorize(message));
+        if (template.isActionBar() && sender instanceof Player) {
+            ((Player) sender).spigot().sendMessage(ChatMessageType.ACTION_BAR, template.renderComponents(args));
         } else {
-            sender.sendMessage(colorize(message));
+            sender.sendMessage(template.render(args));
         }
     }
-} 
\ No newline at end of file
+}
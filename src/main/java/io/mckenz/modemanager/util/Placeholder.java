@@ -0,0 +1,97 @@
+package io.mckenz.modemanager.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Placeholders that can appear in configured messages as %name%.
+ * Values are passed to templates as {@link MessageArgs}.
+ */
+public enum Placeholder {
+    PLAYER("player"),
+    MODE("mode"),
+    OLD_MODE("old_mode"),
+    ADMIN("admin"),
+    TIME("time"),
+    ITEM("item"),
+    ENTITY("entity"),
+    TIMESTAMP("timestamp"),
+    REASON("reason"),
+    LATEST("latest"),
+    CURRENT("current"),
+    URL("url"),
+    COUNT("count"),
+    OPERATION("operation"),
+    QUEUED("queued"),
+    IN_FLIGHT("in_flight"),
+    AVERAGE("average"),
+    MAX("max"),
+    VERIFIED("verified"),
+    UNVERIFIED("unverified"),
+    RECOVERED("recovered"),
+    LOST("lost"),
+    ID("id"),
+    JOB("job"),
+    PRIORITY("priority"),
+    PROGRESS("progress"),
+    BUDGET("budget"),
+    MSPT("mspt"),
+    THROTTLED("throttled"),
+    REJECTED("rejected"),
+    DELAYED("delayed"),
+    NAME("name"),
+    LIMIT("limit"),
+    TAGGED("tagged"),
+    STRIPPED("stripped"),
+    DENIED("denied"),
+    RECIPIENTS("recipients"),
+    MERGED("merged"),
+    WRITTEN("written"),
+    SKIPPED("skipped"),
+    SUPPRESSED("suppressed"),
+    FAILED("failed");
+    
+    private static final Map<String, Placeholder> BY_NAME = new HashMap<>();
+    
+    static {
+        for (Placeholder placeholder : values()) {
+            BY_NAME.put(placeholder.name, placeholder);
+        }
+    }
+    
+    private final String name;
+    private final String token;
+    
+    Placeholder(String name) {
+        this.name = name;
+        this.token = "%" + name + "%";
+    }
+    
+    /**
+     * Get the placeholder name as used in the config
+     * 
+     * @return The placeholder name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get the placeholder token including the surrounding percent signs
+     * 
+     * @return The placeholder token
+     */
+    public String getToken() {
+        return token;
+    }
+    
+    /**
+     * Look up a placeholder by its config name
+     * 
+     * @param name The placeholder name without percent signs
+     * @return The placeholder, or null if there is no such placeholder
+     */
+    public static Placeholder byName(String name) {
+        return BY_NAME.get(name);
+    }
+}
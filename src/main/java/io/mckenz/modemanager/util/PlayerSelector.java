@@ -0,0 +1,78 @@
+package io.mckenz.modemanager.util;
+
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+
+/**
+ * Selects a group of online players in admin commands: @all, @world:&lt;name&gt; or @perm:&lt;permission&gt;.
+ * Selectors start with @, which player names cannot contain.
+ */
+public final class PlayerSelector {
+    private static final String PREFIX = "@";
+    private static final String WORLD_PREFIX = "@world:";
+    private static final String PERMISSION_PREFIX = "@perm:";
+    
+    private final String text;
+    private final String world;
+    private final String permission;
+    
+    private PlayerSelector(String text, String world, String permission) {
+        this.text = text;
+        this.world = world;
+        this.permission = permission;
+    }
+    
+    /**
+     * Check if a command argument is a selector rather than a player name
+     * 
+     * @param text The argument
+     * @return True if the argument starts with @
+     */
+    public static boolean isSelector(String text) {
+        return text.startsWith(PREFIX);
+    }
+    
+    /**
+     * Parse a selector
+     * 
+     * @param text The selector text
+     * @return The selector, or null if it is not a valid selector
+     */
+    public static PlayerSelector parse(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        
+        if (lower.equals("@all")) {
+            return new PlayerSelector(text, null, null);
+        }
+        
+        if (lower.startsWith(WORLD_PREFIX) && text.length() > WORLD_PREFIX.length()) {
+            return new PlayerSelector(text, text.substring(WORLD_PREFIX.length()), null);
+        }
+        
+        if (lower.startsWith(PERMISSION_PREFIX) && text.length() > PERMISSION_PREFIX.length()) {
+            return new PlayerSelector(text, null, text.substring(PERMISSION_PREFIX.length()));
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Check if a player is selected.
+     * Must be called on the thread owning the player.
+     * 
+     * @param player The player
+     * @return True if the player matches the selector
+     */
+    public boolean matches(Player player) {
+        if (world != null && !player.getWorld().getName().equalsIgnoreCase(world)) {
+            return false;
+        }
+        return permission == null || player.hasPermission(permission);
+    }
+    
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,200 @@
+package io.mckenz.modemanager.util;
+
+import io.mckenz.modemanager.ModeManager;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * Schedules tasks on the right thread for the running server.
+ * On Folia, tasks go to the entity, global region and async schedulers, which are
+ * looked up through reflection so the plugin still compiles against the plain Spigot API.
+ * On other servers everything falls back to the Bukkit scheduler and the main thread.
+ */
+public final class SchedulerAdapter {
+    private static final String FOLIA_SCHEDULER_PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+    
+    private final ModeManager plugin;
+    private final boolean folia;
+    private Object globalScheduler;
+    private Object asyncScheduler;
+    private Method globalRunAtFixedRate;
+    private Method entityGetScheduler;
+    private Method entityExecute;
+    private Method asyncRunNow;
+    private Method ownedByCurrentRegion;
+    private Method scheduledTaskCancel;
+    
+    /**
+     * Constructor for SchedulerAdapter
+     * 
+     * @param plugin The plugin instance
+     */
+    public SchedulerAdapter(ModeManager plugin) {
+        this.plugin = plugin;
+        this.folia = detectFolia();
+        
+        if (folia) {
+            try {
+                lookupFoliaSchedulers();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to access the Folia schedulers", e);
+            }
+            plugin.getLogger().info("Folia detected, using region schedulers");
+        }
+    }
+    
+    /**
+     * Check if the server is a Folia server
+     * 
+     * @return True if the server uses region threads
+     */
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Look up the Folia scheduler instances and methods
+     * 
+     * @throws ReflectiveOperationException If the Folia API does not match
+     */
+    private void lookupFoliaSchedulers() throws ReflectiveOperationException {
+        Object server = plugin.getServer();
+        Class<?> serverClass = Class.forName("org.bukkit.Server");
+        Class<?> globalClass = Class.forName(FOLIA_SCHEDULER_PACKAGE + "GlobalRegionScheduler");
+        Class<?> entityClass = Class.forName(FOLIA_SCHEDULER_PACKAGE + "EntityScheduler");
+        Class<?> asyncClass = Class.forName(FOLIA_SCHEDULER_PACKAGE + "AsyncScheduler");
+        Class<?> taskClass = Class.forName(FOLIA_SCHEDULER_PACKAGE + "ScheduledTask");
+        
+        globalScheduler = serverClass.getMethod("getGlobalRegionScheduler").invoke(server);
+        asyncScheduler = serverClass.getMethod("getAsyncScheduler").invoke(server);
+        
+        globalRunAtFixedRate = globalClass.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+        entityGetScheduler = Entity.class.getMethod("getScheduler");
+        entityExecute = entityClass.getMethod("execute", Plugin.class, Runnable.class, Runnable.class, long.class);
+        asyncRunNow = asyncClass.getMethod("runNow", Plugin.class, Consumer.class);
+        ownedByCurrentRegion = serverClass.getMethod("isOwnedByCurrentRegion", Entity.class);
+        scheduledTaskCancel = taskClass.getMethod("cancel");
+    }
+    
+    /**
+     * Check if the server is a Folia server
+     * 
+     * @return True if the server uses region threads
+     */
+    public boolean isFolia() {
+        return folia;
+    }
+    
+    /**
+     * Run a repeating task on the global region, or the main thread outside Folia
+     * 
+     * @param task The task to run
+     * @param delayTicks The delay before the first run in ticks
+     * @param periodTicks The period between runs in ticks
+     * @return A handle to cancel the task
+     */
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        if (folia) {
+            Consumer<Object> consumer = scheduledTask -> task.run();
+            Object scheduled = invoke(globalRunAtFixedRate, globalScheduler, plugin, consumer,
+                                      Math.max(1L, delayTicks), periodTicks);
+            return () -> invoke(scheduledTaskCancel, scheduled);
+        }
+        
+        BukkitTask bukkitTask = plugin.getServer().getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return bukkitTask::cancel;
+    }
+    
+    /**
+     * Run a task on the thread owning an entity, or the main thread outside Folia.
+     * The task follows the entity across regions; if the entity is removed first,
+     * the retired callback runs instead (Folia only).
+     * 
+     * @param entity The entity
+     * @param task The task to run
+     * @param retired The task to run if the entity is removed first, may be null
+     * @param delayTicks The delay in ticks
+     */
+    public void runForEntity(Entity entity, Runnable task, Runnable retired, long delayTicks) {
+        if (folia) {
+            Object entityScheduler = invoke(entityGetScheduler, entity);
+            boolean scheduled = (Boolean) invoke(entityExecute, entityScheduler, plugin, task, retired, Math.max(1L, delayTicks));
+            if (!scheduled && retired != null) {
+                retired.run();
+            }
+        } else if (delayTicks > 0) {
+            plugin.getServer().getScheduler().runTaskLater(plugin, task, delayTicks);
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+    
+    /**
+     * Run a task off the server threads
+     * 
+     * @param task The task to run
+     */
+    public void runAsync(Runnable task) {
+        if (folia) {
+            Consumer<Object> consumer = scheduledTask -> task.run();
+            invoke(asyncRunNow, asyncScheduler, plugin, consumer);
+        } else {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
+        }
+    }
+    
+    /**
+     * Check if the current thread may access an entity
+     * 
+     * @param entity The entity
+     * @return True if the current thread owns the entity's region, or is the main thread outside Folia
+     */
+    public boolean isOwnedByCurrentThread(Entity entity) {
+        if (folia) {
+            return (Boolean) invoke(ownedByCurrentRegion, plugin.getServer(), entity);
+        }
+        return plugin.getServer().isPrimaryThread();
+    }
+    
+    /**
+     * Invoke a reflected scheduler method
+     * 
+     * @param method The method
+     * @param target The target object
+     * @param args The arguments
+     * @return The result
+     */
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Scheduler call " + method.getName() + " failed", cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Scheduler call " + method.getName() + " failed", e);
+        }
+    }
+    
+    /**
+     * Handle to a repeating task
+     */
+    public interface Task {
+        /**
+         * Cancel the task
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,164 @@
+package io.mckenz.modemanager.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for expiring many entries at tick resolution.
+ * Entries are hashed into a fixed ring of slots by their deadline tick, and each tick only
+ * the slot under the cursor is visited, so the cost of a tick does not grow with the number
+ * of scheduled entries. Deadlines further out than one turn of the wheel wait in their slot
+ * for the remaining number of turns. Scheduling and cancelling are constant time.
+ * 
+ * @param <T> The type of the scheduled values
+ */
+public class TimingWheel<T> {
+    private final Timeout<T>[] slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+    
+    /**
+     * Constructor for TimingWheel
+     * 
+     * @param slotCount The number of slots, rounded up to a power of two
+     * @param startTick The tick the wheel starts at
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int slotCount, long startTick) {
+        int capacity = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.slots = (Timeout<T>[]) new Timeout[capacity];
+        this.mask = capacity - 1;
+        this.currentTick = startTick;
+    }
+    
+    /**
+     * Schedule a value to expire at a tick.
+     * A deadline that already passed expires on the next advance.
+     * 
+     * @param value The value
+     * @param deadlineTick The tick at which the value expires
+     * @return The timeout, used to cancel it
+     */
+    public synchronized Timeout<T> schedule(T value, long deadlineTick) {
+        long deadline = Math.max(deadlineTick, currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(this, value);
+        timeout.rounds = (deadline - currentTick - 1) / slots.length;
+        
+        int slot = (int) (deadline & mask);
+        timeout.slot = slot;
+        timeout.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].previous = timeout;
+        }
+        slots[slot] = timeout;
+        size++;
+        return timeout;
+    }
+    
+    /**
+     * Advance the wheel to a tick, expiring every value whose deadline was reached
+     * 
+     * @param tick The tick to advance to
+     * @param expired Called with each expired value, after the wheel lock is released
+     */
+    public void advanceTo(long tick, Consumer<T> expired) {
+        Timeout<T> expiredList = null;
+        
+        synchronized (this) {
+            while (currentTick < tick) {
+                currentTick++;
+                
+                Timeout<T> timeout = slots[(int) (currentTick & mask)];
+                while (timeout != null) {
+                    Timeout<T> next = timeout.next;
+                    if (timeout.rounds <= 0) {
+                        unlink(timeout);
+                        timeout.next = expiredList;
+                        expiredList = timeout;
+                    } else {
+                        timeout.rounds--;
+                    }
+                    timeout = next;
+                }
+            }
+        }
+        
+        for (Timeout<T> timeout = expiredList; timeout != null; timeout = timeout.next) {
+            expired.accept(timeout.value);
+        }
+    }
+    
+    /**
+     * Get the number of scheduled values
+     * 
+     * @return The number of values
+     */
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Remove a timeout from its slot
+     * 
+     * @param timeout The timeout
+     */
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        size--;
+    }
+    
+    /**
+     * A value scheduled in the wheel
+     * 
+     * @param <T> The type of the value
+     */
+    public static final class Timeout<T> {
+        private final TimingWheel<T> wheel;
+        private final T value;
+        private long rounds;
+        private int slot;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        
+        private Timeout(TimingWheel<T> wheel, T value) {
+            this.wheel = wheel;
+            this.value = value;
+        }
+        
+        /**
+         * Get the scheduled value
+         * 
+         * @return The value
+         */
+        public T getValue() {
+            return value;
+        }
+        
+        /**
+         * Cancel the timeout; does nothing if it already expired or was cancelled
+         * 
+         * @return True if the timeout was still scheduled
+         */
+        public boolean cancel() {
+            synchronized (wheel) {
+                if (slot < 0) {
+                    return false;
+                }
+                wheel.unlink(this);
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.mckenz.modemanager.util;
+
+/**
+ * Token bucket rate limiter.
+ * The bucket holds up to a burst of tokens and refills at a steady rate; each request takes one token.
+ */
+public class TokenBucket {
+    private final int burst;
+    private final double perSecond;
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+    
+    /**
+     * Constructor for TokenBucket
+     * 
+     * @param burst The number of tokens the bucket holds, and starts with
+     * @param perSecond The number of tokens added per second
+     */
+    public TokenBucket(int burst, double perSecond) {
+        this.burst = burst;
+        this.perSecond = perSecond;
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = Math.max(0.0, perSecond) / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+    
+    /**
+     * Take a token if one is available
+     * 
+     * @return True if a token was taken
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+    
+    /**
+     * Get the number of tokens currently available
+     * 
+     * @return The available tokens
+     */
+    public synchronized double getAvailable() {
+        refill();
+        return tokens;
+    }
+    
+    /**
+     * Check if this bucket was created with the given settings
+     * 
+     * @param burst The number of tokens the bucket holds
+     * @param perSecond The number of tokens added per second
+     * @return True if both settings match
+     */
+    public boolean hasSettings(int burst, double perSecond) {
+        return this.burst == burst && Double.compare(this.perSecond, perSecond) == 0;
+    }
+    
+    /**
+     * Add the tokens earned since the last refill
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -1,7 +1,7 @@
 package io.mckenz.modemanager.util;
 
 import io.mckenz.modemanager.ModeManager;
-import org.bukkit.Bukkit;
+import io.mckenz.modemanager.storage.IoOperation;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
@@ -41,7 +41,7 @@ public class UpdateChecker implements Listener {
      * Checks for updates to the plugin
      */
     public void checkForUpdates() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getIoExecutor().run(IoOperation.UPDATE_CHECK, () -> {
             try {
                 String currentVersion = plugin.getDescription().getVersion();
                 latestVersion = fetchLatestVersion();
@@ -183,18 +183,12 @@ public class UpdateChecker implements Listener {
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         if (updateAvailable && notifyAdmins && event.getPlayer().hasPermission("modemanager.update")) {
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                String prefix = plugin.getConfig().getString("messages.prefix", "&8[&eModeManager&8] ");
-                String updateAvailableMsg = plugin.getConfig().getString("messages.update-available", "&aA new update is available: &f%latest% &a(Current: &f%current%&a)");
-                String updateDownloadMsg = plugin.getConfig().getString("messages.update-download", "&aDownload it at: &f%url%");
-                
-                updateAvailableMsg = updateAvailableMsg.replace("%latest%", latestVersion)
-                                                      .replace("%current%", plugin.getDescription().getVersion());
-                updateDownloadMsg = updateDownloadMsg.replace("%url%", "spigotmc.org/resources/" + resourceId);
-                
-                event.getPlayer().sendMessage(MessageUtil.colorize(prefix + updateAvailableMsg));
-                event.getPlayer().sendMessage(MessageUtil.colorize(prefix + updateDownloadMsg));
-            }, 40L); // 2 seconds delay
+            plugin.getScheduler().runForEntity(event.getPlayer(), () -> {
+                plugin.getMessageUtil().sendMessage(event.getPlayer(), "update-available",
+                        Placeholder.LATEST, latestVersion, Placeholder.CURRENT, plugin.getDescription().getVersion());
+                plugin.getMessageUtil().sendMessage(event.getPlayer(), "update-download",
+                        Placeholder.URL, "spigotmc.org/resources/" + resourceId);
+            }, null, 40L); // 2 seconds delay
         }
     }
 } 
\ No newline at end of file